@@ -36,6 +36,9 @@ import com.music.api.auth.OAuthStateStore.OAuthState;
 import com.music.api.spotify.SpotifyApiClient;
 import com.music.api.spotify.SpotifyUserProfile;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 @Service
 public class SpotifyAuthService {
 
@@ -105,19 +108,24 @@ public class SpotifyAuthService {
     }
 
     public UserAuth refreshAccessToken(UserAuth userAuth) {
-        try {
-            OAuth2AuthorizationAccess refreshed = refreshToken(userAuth);
-            String scopes = normalizeScopes(refreshed.scopes());
-            return userAuthRepository.updateTokens(
+        return refreshAccessTokenReactive(userAuth).block();
+    }
+
+    /**
+     * Exchanges the refresh token without blocking; only the write of the new tokens runs on a
+     * worker thread.
+     */
+    public Mono<UserAuth> refreshAccessTokenReactive(UserAuth userAuth) {
+        return refreshToken(userAuth)
+            .publishOn(Schedulers.boundedElastic())
+            .map(refreshed -> userAuthRepository.updateTokens(
                 userAuth.userId(),
                 refreshed.accessToken(),
                 refreshed.refreshToken(),
-                scopes
-            );
-        } catch (WebClientResponseException ex) {
-            log.warn("Unable to refresh Spotify token for user {}: {}", userAuth.userId(), ex.getMessage());
-            throw ex;
-        }
+                normalizeScopes(refreshed.scopes())
+            ))
+            .doOnError(WebClientResponseException.class,
+                ex -> log.warn("Unable to refresh Spotify token for user {}: {}", userAuth.userId(), ex.getMessage()));
     }
 
     private OAuth2AuthorizationAccess exchangeAuthorizationCode(String code, OAuth2AuthorizationRequest authorizationRequest) {
@@ -130,7 +138,7 @@ public class SpotifyAuthService {
         if (verifier instanceof String codeVerifier && !codeVerifier.isBlank()) {
             form.add("code_verifier", codeVerifier);
         }
-        TokenResponse response = requestToken(form);
+        TokenResponse response = requestToken(form).block();
         Set<String> scopes = ScopeParser.parse(response.scope());
         return new OAuth2AuthorizationAccess(
             response.accessToken(),
@@ -139,14 +147,15 @@ public class SpotifyAuthService {
         );
     }
 
-    private OAuth2AuthorizationAccess refreshToken(UserAuth userAuth) {
+    private Mono<OAuth2AuthorizationAccess> refreshToken(UserAuth userAuth) {
         MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
         form.add("grant_type", "refresh_token");
         form.add("refresh_token", userAuth.refreshToken());
-        TokenResponse response = requestToken(form);
-        Set<String> scopes = ScopeParser.parse(response.scope());
-        String refreshToken = response.refreshToken() != null ? response.refreshToken() : userAuth.refreshToken();
-        return new OAuth2AuthorizationAccess(response.accessToken(), refreshToken, scopes);
+        return requestToken(form).map(response -> {
+            Set<String> scopes = ScopeParser.parse(response.scope());
+            String refreshToken = response.refreshToken() != null ? response.refreshToken() : userAuth.refreshToken();
+            return new OAuth2AuthorizationAccess(response.accessToken(), refreshToken, scopes);
+        });
     }
 
     private String normalizeScopes(Set<String> scopes) {
@@ -217,24 +226,17 @@ public class SpotifyAuthService {
         return Set.copyOf(merged);
     }
 
-    private TokenResponse requestToken(MultiValueMap<String, String> form) {
-        try {
-            TokenResponse response = spotifyAccountsClient.post()
-                .uri("/api/token")
-                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
-                .headers(headers -> headers.setBasicAuth(clientRegistration.getClientId(), clientRegistration.getClientSecret()))
-                .body(BodyInserters.fromFormData(form))
-                .retrieve()
-                .bodyToMono(TokenResponse.class)
-                .block();
-            if (response == null) {
-                throw new IllegalStateException("Spotify token endpoint returned empty response");
-            }
-            return response;
-        } catch (WebClientResponseException ex) {
-            log.error("Spotify token request failed: {}", ex.getResponseBodyAsString());
-            throw ex;
-        }
+    private Mono<TokenResponse> requestToken(MultiValueMap<String, String> form) {
+        return spotifyAccountsClient.post()
+            .uri("/api/token")
+            .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+            .headers(headers -> headers.setBasicAuth(clientRegistration.getClientId(), clientRegistration.getClientSecret()))
+            .body(BodyInserters.fromFormData(form))
+            .retrieve()
+            .bodyToMono(TokenResponse.class)
+            .switchIfEmpty(Mono.error(() -> new IllegalStateException("Spotify token endpoint returned empty response")))
+            .doOnError(WebClientResponseException.class,
+                ex -> log.error("Spotify token request failed: {}", ex.getResponseBodyAsString()));
     }
 
     private static final class ScopeParser {
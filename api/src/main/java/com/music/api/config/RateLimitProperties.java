@@ -0,0 +1,174 @@
+package com.music.api.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounds for the adaptive client-side rate limiter in front of each upstream, in calls per second
+ * (fractions allowed). Last.fm's terms cap clients at 5 calls per second and MusicBrainz at 1, so
+ * those limiters can only back off from and recover to their published ceilings; Spotify publishes
+ * no fixed rate and is probed upwards. MusicBrainz answers over-eager clients with 503 rather than
+ * 429, so it counts both as throttling.
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Share the Last.fm and MusicBrainz budgets across replicas through a token bucket in Postgres,
+     * refilled at each limiter's max rate. Without it every replica spends the full budget.
+     */
+    private boolean distributed = false;
+
+    /**
+     * Limiter for the Spotify Web API, shared by all users since Spotify limits per application.
+     */
+    private Limit spotify = new Limit(10, 1, 50, Duration.ofSeconds(5), 1, List.of(429));
+
+    /**
+     * Limiter for the Last.fm web service.
+     */
+    private Limit lastfm = new Limit(5, 0.5, 5, Duration.ofSeconds(2), 2, List.of(429));
+
+    /**
+     * Limiter for the MusicBrainz web service.
+     */
+    private Limit musicbrainz = new Limit(1, 0.25, 1, Duration.ofSeconds(5), 1, List.of(429, 503));
+
+    public boolean isDistributed() {
+        return distributed;
+    }
+
+    public void setDistributed(boolean distributed) {
+        this.distributed = distributed;
+    }
+
+    public Limit getSpotify() {
+        return spotify;
+    }
+
+    public void setSpotify(Limit spotify) {
+        this.spotify = spotify;
+    }
+
+    public Limit getLastfm() {
+        return lastfm;
+    }
+
+    public void setLastfm(Limit lastfm) {
+        this.lastfm = lastfm;
+    }
+
+    public Limit getMusicbrainz() {
+        return musicbrainz;
+    }
+
+    public void setMusicbrainz(Limit musicbrainz) {
+        this.musicbrainz = musicbrainz;
+    }
+
+    public static class Limit {
+
+        /**
+         * Calls per second allowed at startup.
+         */
+        private double initialRate;
+
+        /**
+         * Floor the rate never drops below when the upstream rejects calls.
+         */
+        private double minRate;
+
+        /**
+         * Ceiling the rate never ramps above while calls succeed.
+         */
+        private double maxRate;
+
+        /**
+         * How long a call may wait for a permit before failing with RequestNotPermitted.
+         */
+        private Duration timeout;
+
+        /**
+         * Tokens a replica takes from the shared bucket per database round trip when limiting is
+         * distributed. Larger leases mean fewer queries but burstier use across replicas.
+         */
+        private int leaseSize;
+
+        /**
+         * HTTP statuses the upstream uses to signal throttling; each halves the rate. Responses
+         * carrying Retry-After always count.
+         */
+        private List<Integer> throttleStatuses = List.of(429);
+
+        public Limit() {
+        }
+
+        Limit(
+            double initialRate,
+            double minRate,
+            double maxRate,
+            Duration timeout,
+            int leaseSize,
+            List<Integer> throttleStatuses
+        ) {
+            this.initialRate = initialRate;
+            this.minRate = minRate;
+            this.maxRate = maxRate;
+            this.timeout = timeout;
+            this.leaseSize = leaseSize;
+            this.throttleStatuses = throttleStatuses;
+        }
+
+        public double getInitialRate() {
+            return initialRate;
+        }
+
+        public void setInitialRate(double initialRate) {
+            this.initialRate = initialRate;
+        }
+
+        public double getMinRate() {
+            return minRate;
+        }
+
+        public void setMinRate(double minRate) {
+            this.minRate = minRate;
+        }
+
+        public double getMaxRate() {
+            return maxRate;
+        }
+
+        public void setMaxRate(double maxRate) {
+            this.maxRate = maxRate;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public int getLeaseSize() {
+            return leaseSize;
+        }
+
+        public void setLeaseSize(int leaseSize) {
+            this.leaseSize = leaseSize;
+        }
+
+        public List<Integer> getThrottleStatuses() {
+            return throttleStatuses;
+        }
+
+        public void setThrottleStatuses(List<Integer> throttleStatuses) {
+            this.throttleStatuses = throttleStatuses;
+        }
+    }
+}
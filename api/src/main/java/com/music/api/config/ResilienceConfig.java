@@ -1,33 +1,65 @@
 package com.music.api.config;
 
-import java.time.Duration;
-
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import io.github.resilience4j.ratelimiter.RateLimiter;
-import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import com.music.api.config.RateLimitProperties.Limit;
+import com.music.api.ratelimit.PostgresTokenBucket;
+import com.music.api.ratelimit.RateLimitBucketRepository;
+import com.music.api.support.AdaptiveRateLimiter;
+import com.music.api.support.ClusterPermits;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 public class ResilienceConfig {
 
+    private final RateLimitProperties properties;
+    private final RateLimitBucketRepository bucketRepository;
+    private final MeterRegistry meterRegistry;
+
+    public ResilienceConfig(
+        RateLimitProperties properties,
+        RateLimitBucketRepository bucketRepository,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.bucketRepository = bucketRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public AdaptiveRateLimiter spotifyRateLimiter() {
+        return adaptive("spotify", properties.getSpotify(), ClusterPermits.UNLIMITED);
+    }
+
     @Bean
-    public RateLimiter lastFmRateLimiter() {
-        RateLimiterConfig config = RateLimiterConfig.custom()
-            .limitForPeriod(5)
-            .limitRefreshPeriod(Duration.ofSeconds(1))
-            .timeoutDuration(Duration.ofSeconds(2))
-            .build();
-        return RateLimiter.of("lastfm", config);
+    public AdaptiveRateLimiter lastFmRateLimiter() {
+        return adaptive("lastfm", properties.getLastfm(), clusterPermits("lastfm", properties.getLastfm()));
     }
 
     @Bean
-    public RateLimiter musicBrainzRateLimiter() {
-        RateLimiterConfig config = RateLimiterConfig.custom()
-            .limitForPeriod(1)
-            .limitRefreshPeriod(Duration.ofSeconds(1))
-            .timeoutDuration(Duration.ofSeconds(5))
-            .build();
-        return RateLimiter.of("musicbrainz", config);
+    public AdaptiveRateLimiter musicBrainzRateLimiter() {
+        return adaptive("musicbrainz", properties.getMusicbrainz(), clusterPermits("musicbrainz", properties.getMusicbrainz()));
+    }
+
+    private ClusterPermits clusterPermits(String name, Limit limit) {
+        if (!properties.isDistributed()) {
+            return ClusterPermits.UNLIMITED;
+        }
+        return new PostgresTokenBucket(name, limit.getMaxRate(), limit.getLeaseSize(), bucketRepository, meterRegistry);
+    }
+
+    private AdaptiveRateLimiter adaptive(String name, Limit limit, ClusterPermits clusterPermits) {
+        return new AdaptiveRateLimiter(
+            name,
+            limit.getInitialRate(),
+            limit.getMinRate(),
+            limit.getMaxRate(),
+            limit.getTimeout(),
+            ex -> limit.getThrottleStatuses().contains(ex.getStatusCode().value()),
+            clusterPermits,
+            meterRegistry
+        );
     }
 }
@@ -0,0 +1,213 @@
+package com.music.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Connection pool and timeout settings for each upstream HTTP client. Defaults are sized from the
+ * fan-out each upstream sees: Spotify carries per-request search fan-out, Last.fm and MusicBrainz
+ * sit behind rate limiters of 5 and 1 calls per second.
+ */
+@Component
+@ConfigurationProperties(prefix = "upstream")
+public class UpstreamHttpProperties {
+
+    /**
+     * Pool for api.spotify.com.
+     */
+    private Pool spotifyApi = new Pool(100, 500, true);
+
+    /**
+     * Pool for accounts.spotify.com, used only for token exchange and refresh.
+     */
+    private Pool spotifyAccounts = new Pool(10, 50, true);
+
+    /**
+     * Pool for the Last.fm web service.
+     */
+    private Pool lastfm = new Pool(16, 200, false);
+
+    /**
+     * Pool for the MusicBrainz web service.
+     */
+    private Pool musicbrainz = new Pool(4, 100, false);
+
+    public Pool getSpotifyApi() {
+        return spotifyApi;
+    }
+
+    public void setSpotifyApi(Pool spotifyApi) {
+        this.spotifyApi = spotifyApi;
+    }
+
+    public Pool getSpotifyAccounts() {
+        return spotifyAccounts;
+    }
+
+    public void setSpotifyAccounts(Pool spotifyAccounts) {
+        this.spotifyAccounts = spotifyAccounts;
+    }
+
+    public Pool getLastfm() {
+        return lastfm;
+    }
+
+    public void setLastfm(Pool lastfm) {
+        this.lastfm = lastfm;
+    }
+
+    public Pool getMusicbrainz() {
+        return musicbrainz;
+    }
+
+    public void setMusicbrainz(Pool musicbrainz) {
+        this.musicbrainz = musicbrainz;
+    }
+
+    public static class Pool {
+
+        /**
+         * Maximum number of open connections to the upstream. With HTTP/2 each connection
+         * multiplexes many concurrent requests.
+         */
+        private int maxConnections;
+
+        /**
+         * Maximum number of requests queued for a connection once the pool is exhausted; further
+         * requests fail immediately. -1 leaves the queue unbounded.
+         */
+        private int pendingAcquireMaxCount;
+
+        /**
+         * How long a queued request waits for a connection before failing.
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Idle connections older than this are closed.
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * Connections are closed once they reach this age, so DNS changes are eventually picked up.
+         */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /**
+         * Interval of the background sweep that closes idle and expired connections. Zero only
+         * checks connections when they are acquired.
+         */
+        private Duration evictionInterval = Duration.ofSeconds(30);
+
+        /**
+         * TCP connect timeout.
+         */
+        private Duration connectTimeout = Duration.ofSeconds(3);
+
+        /**
+         * Maximum time between sending a request and receiving its response.
+         */
+        private Duration responseTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Negotiate HTTP/2 through ALPN, falling back to HTTP/1.1. Only applies to https base URLs.
+         */
+        private boolean http2;
+
+        /**
+         * Send Accept-Encoding: gzip and decompress responses.
+         */
+        private boolean compress = true;
+
+        public Pool() {
+        }
+
+        Pool(int maxConnections, int pendingAcquireMaxCount, boolean http2) {
+            this.maxConnections = maxConnections;
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+            this.http2 = http2;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getPendingAcquireMaxCount() {
+            return pendingAcquireMaxCount;
+        }
+
+        public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+
+        public Duration getPendingAcquireTimeout() {
+            return pendingAcquireTimeout;
+        }
+
+        public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+            this.pendingAcquireTimeout = pendingAcquireTimeout;
+        }
+
+        public Duration getMaxIdleTime() {
+            return maxIdleTime;
+        }
+
+        public void setMaxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+
+        public Duration getMaxLifeTime() {
+            return maxLifeTime;
+        }
+
+        public void setMaxLifeTime(Duration maxLifeTime) {
+            this.maxLifeTime = maxLifeTime;
+        }
+
+        public Duration getEvictionInterval() {
+            return evictionInterval;
+        }
+
+        public void setEvictionInterval(Duration evictionInterval) {
+            this.evictionInterval = evictionInterval;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getResponseTimeout() {
+            return responseTimeout;
+        }
+
+        public void setResponseTimeout(Duration responseTimeout) {
+            this.responseTimeout = responseTimeout;
+        }
+
+        public boolean isHttp2() {
+            return http2;
+        }
+
+        public void setHttp2(boolean http2) {
+            this.http2 = http2;
+        }
+
+        public boolean isCompress() {
+            return compress;
+        }
+
+        public void setCompress(boolean compress) {
+            this.compress = compress;
+        }
+    }
+}
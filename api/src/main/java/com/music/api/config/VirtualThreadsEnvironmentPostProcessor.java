@@ -0,0 +1,29 @@
+package com.music.api.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Extends {@code spring.threads.virtual.enabled} to Reactor: with the flag on, Boot already runs
+ * Tomcat requests, {@code applicationTaskExecutor} and scheduled jobs on virtual threads, and this
+ * makes {@code Schedulers.boundedElastic()}, where the repositories are called from reactive
+ * pipelines, do the same. Reactor reads the switch once when {@code Schedulers} is initialised, so
+ * it has to be set while the environment is prepared, before any bean touches a scheduler. An
+ * explicit {@code -Dreactor.schedulers.defaultBoundedElasticOnVirtualThreads} always wins.
+ */
+public class VirtualThreadsEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String VIRTUAL_THREADS_PROPERTY = "spring.threads.virtual.enabled";
+    static final String REACTOR_BOUNDED_ELASTIC_PROPERTY = "reactor.schedulers.defaultBoundedElasticOnVirtualThreads";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, false)) {
+            return;
+        }
+        if (System.getProperty(REACTOR_BOUNDED_ELASTIC_PROPERTY) == null) {
+            System.setProperty(REACTOR_BOUNDED_ELASTIC_PROPERTY, "true");
+        }
+    }
+}
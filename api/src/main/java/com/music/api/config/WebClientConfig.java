@@ -1,21 +1,46 @@
 package com.music.api.config;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.music.api.config.UpstreamHttpProperties.Pool;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * One WebClient per upstream, each on its own connection pool so a slow upstream cannot starve
+ * the others of connections. Pool gauges are published as {@code reactor.netty.connection.provider.*}
+ * with the pool name as the {@code name} tag.
+ */
 @Configuration
-public class WebClientConfig {
+public class WebClientConfig implements DisposableBean {
+
+    private final UpstreamHttpProperties upstreamProperties;
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
+
+    public WebClientConfig(UpstreamHttpProperties upstreamProperties) {
+        this.upstreamProperties = upstreamProperties;
+    }
 
     @Bean
     public WebClient spotifyAccountsClient(
         WebClient.Builder builder,
         @Value("${spotify.accounts.base-url:https://accounts.spotify.com}") String baseUrl
     ) {
-        return builder
+        return builder.clone()
             .baseUrl(baseUrl)
+            .clientConnector(connector("spotify-accounts", baseUrl, upstreamProperties.getSpotifyAccounts()))
             .exchangeStrategies(defaultStrategies())
             .build();
     }
@@ -25,8 +50,9 @@ public class WebClientConfig {
         WebClient.Builder builder,
         @Value("${spotify.api.base-url:https://api.spotify.com/v1}") String baseUrl
     ) {
-        return builder
+        return builder.clone()
             .baseUrl(baseUrl)
+            .clientConnector(connector("spotify-api", baseUrl, upstreamProperties.getSpotifyApi()))
             .exchangeStrategies(defaultStrategies())
             .build();
     }
@@ -36,8 +62,9 @@ public class WebClientConfig {
         WebClient.Builder builder,
         @Value("${lastfm.base-url:https://ws.audioscrobbler.com/2.0}") String baseUrl
     ) {
-        return builder
+        return builder.clone()
             .baseUrl(baseUrl)
+            .clientConnector(connector("lastfm", baseUrl, upstreamProperties.getLastfm()))
             .exchangeStrategies(defaultStrategies())
             .build();
     }
@@ -47,9 +74,10 @@ public class WebClientConfig {
         WebClient.Builder builder,
         @Value("${musicbrainz.base-url:https://musicbrainz.org/ws/2}") String baseUrl
     ) {
-        return builder
+        return builder.clone()
             .baseUrl(baseUrl)
             .defaultHeader("User-Agent", "music-similarity-app/1.0 (support@example.com)")
+            .clientConnector(connector("musicbrainz", baseUrl, upstreamProperties.getMusicbrainz()))
             .exchangeStrategies(defaultStrategies())
             .build();
     }
@@ -59,6 +87,34 @@ public class WebClientConfig {
         return WebClient.builder();
     }
 
+    @Override
+    public void destroy() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+    }
+
+    private ReactorClientHttpConnector connector(String name, String baseUrl, Pool pool) {
+        ConnectionProvider provider = ConnectionProvider.builder(name)
+            .maxConnections(pool.getMaxConnections())
+            .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+            .maxIdleTime(pool.getMaxIdleTime())
+            .maxLifeTime(pool.getMaxLifeTime())
+            .evictInBackground(pool.getEvictionInterval())
+            .metrics(true)
+            .build();
+        connectionProviders.add(provider);
+
+        HttpClient httpClient = HttpClient.create(provider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(pool.getConnectTimeout().toMillis()))
+            .responseTimeout(pool.getResponseTimeout())
+            .compress(pool.isCompress());
+        // HTTP/2 is negotiated through ALPN, so it needs TLS; plain http URLs (local stubs) stay on HTTP/1.1
+        if (pool.isHttp2() && baseUrl.startsWith("https:")) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
     private ExchangeStrategies defaultStrategies() {
         return ExchangeStrategies.builder()
             .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(2 * 1024 * 1024))
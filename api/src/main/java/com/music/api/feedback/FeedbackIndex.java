@@ -0,0 +1,67 @@
+package com.music.api.feedback;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * In-memory view of the feedback table, one {@link UserFeedback} per recently active user.
+ * A user's votes are loaded with a single query on first use; votes saved through this instance
+ * are written through, so they are visible here at once. Votes saved on another replica are only
+ * seen when the entry is reloaded, so each entry lives at most two minutes from its load, however
+ * active the user is; that is the bound on cross-replica staleness. A reload is a new instance and
+ * so also retires recommendation lists cached against the old one, whose default TTL is the same.
+ */
+@Component
+public class FeedbackIndex {
+
+    private static final long MAX_USERS = 10_000;
+    private static final Duration RELOAD_AFTER = Duration.ofMinutes(2);
+
+    private final FeedbackRepository feedbackRepository;
+    private final Cache<UUID, UserFeedback> cache;
+
+    public FeedbackIndex(FeedbackRepository feedbackRepository, MeterRegistry meterRegistry) {
+        this.feedbackRepository = feedbackRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(MAX_USERS)
+            // Measured from the load: write-through updates must not extend an entry's life
+            .expireAfter(Expiry.creating((UUID userId, UserFeedback feedback) -> RELOAD_AFTER))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "feedback.index");
+    }
+
+    public UserFeedback forUser(UUID userId) {
+        if (userId == null) {
+            return UserFeedback.EMPTY;
+        }
+        return cache.get(userId, this::load);
+    }
+
+    /**
+     * Applies a saved vote to the user's entry if it is loaded. Runs after the database write, and
+     * Caffeine serialises it behind any load in progress for the same user, so a concurrent load
+     * cannot overwrite it with older data.
+     */
+    void record(FeedbackRecord saved) {
+        cache.asMap().computeIfPresent(saved.userId(), (userId, feedback) -> {
+            feedback.put(saved.spotifyId(), saved.label());
+            return feedback;
+        });
+    }
+
+    private UserFeedback load(UUID userId) {
+        UserFeedback feedback = UserFeedback.mutable();
+        feedbackRepository.findByUser(userId).forEach(row -> feedback.put(row.spotifyId(), row.label()));
+        return feedback;
+    }
+}
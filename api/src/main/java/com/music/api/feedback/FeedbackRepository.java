@@ -2,6 +2,7 @@ package com.music.api.feedback;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -52,6 +53,16 @@ public class FeedbackRepository {
         return jdbcTemplate.query(sql, params, ROW_MAPPER).stream().findFirst();
     }
 
+    public List<FeedbackRecord> findByUser(UUID userId) {
+        String sql = """
+            SELECT user_id, spotify_id, label, created_at
+            FROM feedback
+            WHERE user_id = :userId
+            """;
+
+        return jdbcTemplate.query(sql, new MapSqlParameterSource("userId", userId), ROW_MAPPER);
+    }
+
     private static FeedbackRecord mapRow(ResultSet rs, int rowNum) throws SQLException {
         return new FeedbackRecord(
             rs.getObject("user_id", UUID.class),
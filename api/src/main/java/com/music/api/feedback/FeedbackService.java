@@ -14,13 +14,16 @@ public class FeedbackService {
 
     private final UserAuthRepository userAuthRepository;
     private final FeedbackRepository feedbackRepository;
+    private final FeedbackIndex feedbackIndex;
 
     public FeedbackService(
         UserAuthRepository userAuthRepository,
-        FeedbackRepository feedbackRepository
+        FeedbackRepository feedbackRepository,
+        FeedbackIndex feedbackIndex
     ) {
         this.userAuthRepository = userAuthRepository;
         this.feedbackRepository = feedbackRepository;
+        this.feedbackIndex = feedbackIndex;
     }
 
     public FeedbackRecord saveFeedback(UUID userId, String rawTrackId, FeedbackVote vote) {
@@ -28,7 +31,9 @@ public class FeedbackService {
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User authorization not found"));
 
         String normalizedTrack = normalize(rawTrackId);
-        return feedbackRepository.upsert(userId, normalizedTrack, vote.code());
+        FeedbackRecord saved = feedbackRepository.upsert(userId, normalizedTrack, vote.code());
+        feedbackIndex.record(saved);
+        return saved;
     }
 
     private String normalize(String rawTrackId) {
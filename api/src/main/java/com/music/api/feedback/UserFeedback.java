@@ -0,0 +1,62 @@
+package com.music.api.feedback;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One user's votes keyed by Spotify track id. Lookups are a single hash probe, so ranking can
+ * consult it for every candidate.
+ */
+public final class UserFeedback {
+
+    public static final UserFeedback EMPTY = new UserFeedback(Map.of());
+
+    private final Map<String, Short> labels;
+    private final AtomicLong version = new AtomicLong();
+
+    UserFeedback(Map<String, Short> labels) {
+        this.labels = labels;
+    }
+
+    static UserFeedback mutable() {
+        return new UserFeedback(new ConcurrentHashMap<>());
+    }
+
+    /**
+     * The stored label for the track: 1 for an up vote, -1 for a down vote, 0 when there is none.
+     */
+    public int label(String spotifyId) {
+        if (spotifyId == null) {
+            return 0;
+        }
+        Short label = labels.get(spotifyId);
+        return label != null ? label : 0;
+    }
+
+    public boolean isUpVoted(String spotifyId) {
+        return label(spotifyId) > 0;
+    }
+
+    public boolean isDownVoted(String spotifyId) {
+        return label(spotifyId) < 0;
+    }
+
+    public int size() {
+        return labels.size();
+    }
+
+    /**
+     * Number of votes applied to this instance. Together with the instance identity this tells
+     * whether anything derived from the votes is still current: a reload after eviction yields a
+     * new instance, and every vote recorded on a loaded one bumps the version.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    void put(String spotifyId, short label) {
+        labels.put(spotifyId, label);
+        version.incrementAndGet();
+    }
+}
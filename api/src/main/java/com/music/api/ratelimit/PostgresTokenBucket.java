@@ -0,0 +1,130 @@
+package com.music.api.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+import com.music.api.ratelimit.RateLimitBucketRepository.Lease;
+import com.music.api.support.ClusterPermits;
+import com.music.api.support.SingleFlight;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A token bucket in {@code rate_limit_buckets} shared by every replica. Instead of a round trip per
+ * call, a replica leases up to {@code leaseSize} tokens at once and hands them out locally. Leased
+ * tokens expire after one second, so an idle replica cannot hoard a burst and spend it later on
+ * top of what the others are using. When the bucket is empty, callers wait for the time it needs
+ * to refill one token; concurrent waiters share a single lease query. If the database cannot be
+ * reached, calls are allowed and only the per-replica limit applies.
+ */
+public class PostgresTokenBucket implements ClusterPermits {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresTokenBucket.class);
+
+    private static final Duration LEASE_TTL = Duration.ofSeconds(1);
+    private static final Duration MIN_POLL_INTERVAL = Duration.ofMillis(20);
+
+    private final String name;
+    private final double ratePerSecond;
+    private final int capacity;
+    private final int leaseSize;
+    private final RateLimitBucketRepository repository;
+    private final SingleFlight<String, Lease> leaseQueries;
+    private final Counter leases;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int leased;
+    private long leaseExpiresNanos;
+
+    public PostgresTokenBucket(
+        String name,
+        double ratePerSecond,
+        int leaseSize,
+        RateLimitBucketRepository repository,
+        MeterRegistry meterRegistry
+    ) {
+        this.name = name;
+        this.ratePerSecond = ratePerSecond;
+        // A bucket holds one second's worth of tokens, and at least the one a call needs
+        this.capacity = Math.max(1, (int) Math.floor(ratePerSecond));
+        this.leaseSize = Math.clamp(leaseSize, 1, capacity);
+        this.repository = repository;
+        this.leaseQueries = new SingleFlight<>(name + "_lease", meterRegistry);
+        this.leases = meterRegistry.counter("ratelimiter.cluster.leases", "name", name);
+    }
+
+    @Override
+    public Mono<Boolean> acquire(Duration timeout) {
+        return Mono.defer(() -> acquire(System.nanoTime() + timeout.toNanos()));
+    }
+
+    private Mono<Boolean> acquire(long deadlineNanos) {
+        if (takeLeased()) {
+            return Mono.just(true);
+        }
+        return leaseQueries.executeReactive(name, this::lease)
+            .flatMap(lease -> {
+                if (lease.permits() > 0) {
+                    // Tokens went into the local lease; compete for them like any other caller
+                    return acquire(deadlineNanos);
+                }
+                long waitNanos = Math.max(MIN_POLL_INTERVAL.toNanos(),
+                    (long) ((1.0 - lease.remaining()) / ratePerSecond * 1_000_000_000L));
+                if (System.nanoTime() + waitNanos > deadlineNanos) {
+                    return Mono.just(false);
+                }
+                return Mono.delay(Duration.ofNanos(waitNanos)).then(Mono.defer(() -> acquire(deadlineNanos)));
+            })
+            .onErrorResume(DataAccessException.class, ex -> {
+                log.warn("Cluster rate limit for {} unavailable, falling back to the local limit: {}", name, ex.getMessage());
+                return Mono.just(true);
+            });
+    }
+
+    private Mono<Lease> lease() {
+        return Mono.fromCallable(() -> repository.take(name, ratePerSecond, capacity, leaseSize))
+            .subscribeOn(Schedulers.boundedElastic())
+            .doOnNext(lease -> {
+                if (lease.permits() > 0) {
+                    leases.increment();
+                    addLeased(lease.permits());
+                }
+            });
+    }
+
+    private boolean takeLeased() {
+        lock.lock();
+        try {
+            if (leased > 0 && System.nanoTime() - leaseExpiresNanos < 0) {
+                leased--;
+                return true;
+            }
+            leased = 0;
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addLeased(int permits) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            // Unspent tokens from an earlier, still valid lease were already deducted in Postgres
+            if (now - leaseExpiresNanos >= 0) {
+                leased = 0;
+            }
+            leased += permits;
+            leaseExpiresNanos = now + LEASE_TTL.toNanos();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.music.api.ratelimit;
+
+import java.util.Map;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class RateLimitBucketRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RateLimitBucketRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Refills the bucket for the time elapsed since it was last touched and takes up to
+     * {@code requested} whole tokens from it in one statement. The row lock serialises replicas
+     * and {@code NOW()} is the database clock, so replica clock skew does not matter. A missing
+     * bucket is created full.
+     */
+    public Lease take(String name, double ratePerSecond, int capacity, int requested) {
+        String sql = """
+            WITH bucket AS (
+                SELECT LEAST(:capacity, tokens + EXTRACT(EPOCH FROM NOW() - updated_at)::double precision * :rate) AS available
+                FROM rate_limit_buckets
+                WHERE name = :name
+                FOR UPDATE
+            ), granted AS (
+                SELECT available, LEAST(:requested, FLOOR(available))::int AS permits
+                FROM bucket
+            )
+            UPDATE rate_limit_buckets
+            SET tokens = granted.available - granted.permits, updated_at = NOW()
+            FROM granted
+            WHERE name = :name
+            RETURNING granted.permits, granted.available - granted.permits AS remaining
+            """;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("name", name)
+            .addValue("rate", ratePerSecond)
+            .addValue("capacity", capacity)
+            .addValue("requested", requested);
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new Lease(rs.getInt("permits"), rs.getDouble("remaining")))
+            .stream()
+            .findFirst()
+            .orElseGet(() -> {
+                create(name, capacity);
+                return take(name, ratePerSecond, capacity, requested);
+            });
+    }
+
+    private void create(String name, int capacity) {
+        String sql = """
+            INSERT INTO rate_limit_buckets (name, tokens, updated_at)
+            VALUES (:name, :capacity, NOW())
+            ON CONFLICT (name) DO NOTHING
+            """;
+        jdbcTemplate.update(sql, Map.of("name", name, "capacity", capacity));
+    }
+
+    /**
+     * Tokens granted to the caller and the fractional balance left in the bucket.
+     */
+    public record Lease(int permits, double remaining) {}
+}
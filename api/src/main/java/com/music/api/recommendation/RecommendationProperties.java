@@ -0,0 +1,38 @@
+package com.music.api.recommendation;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "recommendation")
+public class RecommendationProperties {
+
+    /**
+     * How long a fully ranked recommendation list is reused for the same user, seed and ranking
+     * profile. Zero disables the result cache.
+     */
+    private Duration resultCacheTtl = Duration.ofMinutes(2);
+
+    /**
+     * Upper bound on cached recommendation lists.
+     */
+    private long resultCacheMaxEntries = 10_000;
+
+    public Duration getResultCacheTtl() {
+        return resultCacheTtl;
+    }
+
+    public void setResultCacheTtl(Duration resultCacheTtl) {
+        this.resultCacheTtl = resultCacheTtl;
+    }
+
+    public long getResultCacheMaxEntries() {
+        return resultCacheMaxEntries;
+    }
+
+    public void setResultCacheMaxEntries(long resultCacheMaxEntries) {
+        this.resultCacheMaxEntries = resultCacheMaxEntries;
+    }
+}
@@ -0,0 +1,70 @@
+package com.music.api.recommendation;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.music.api.feedback.UserFeedback;
+import com.music.api.recommendation.RecommendationService.RecommendationResult;
+import com.music.api.similarity.RankingService.RankedTrack;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Short-lived cache of fully ranked recommendation lists. Each entry remembers the feedback it was
+ * ranked against and is only served while the user's current feedback is that same, unmodified
+ * instance, so a vote invalidates every list cached for the user. Lists ranked while some artist
+ * tags were still being looked up are not cached, so the next request ranks again with the tags
+ * that have landed since.
+ */
+@Component
+public class RecommendationResultCache {
+
+    private final boolean enabled;
+    private final Cache<ResultKey, CachedResult> cache;
+
+    public RecommendationResultCache(RecommendationProperties properties, MeterRegistry meterRegistry) {
+        Duration ttl = properties.getResultCacheTtl();
+        this.enabled = ttl != null && ttl.isPositive();
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(Math.max(1, properties.getResultCacheMaxEntries()))
+            .expireAfterWrite(enabled ? ttl : Duration.ofNanos(1))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "recommendation.results");
+    }
+
+    public Optional<RecommendationResult> get(ResultKey key, UserFeedback feedback) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        CachedResult cached = cache.getIfPresent(key);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (cached.feedback() != feedback || cached.feedbackVersion() != feedback.version()) {
+            cache.asMap().remove(key, cached);
+            return Optional.empty();
+        }
+        return Optional.of(cached.result());
+    }
+
+    /**
+     * @param feedbackVersion version of {@code feedback} read before ranking started, so a vote
+     *     landing mid-computation leaves the entry already stale
+     */
+    public void put(ResultKey key, RecommendationResult result, UserFeedback feedback, long feedbackVersion) {
+        if (enabled && result.tracks().stream().noneMatch(RankedTrack::tagsPending)) {
+            cache.put(key, new CachedResult(result, feedback, feedbackVersion));
+        }
+    }
+
+    public record ResultKey(UUID userId, String seedTrackId, String rankingProfile) {}
+
+    private record CachedResult(RecommendationResult result, UserFeedback feedback, long feedbackVersion) {}
+}
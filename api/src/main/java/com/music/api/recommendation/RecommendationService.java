@@ -2,7 +2,6 @@ package com.music.api.recommendation;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -12,17 +11,23 @@ import org.springframework.web.server.ResponseStatusException;
 import com.music.api.auth.SpotifyAuthService;
 import com.music.api.auth.UserAuth;
 import com.music.api.auth.UserAuthRepository;
+import com.music.api.feedback.FeedbackIndex;
+import com.music.api.feedback.UserFeedback;
+import com.music.api.recommendation.RecommendationResultCache.ResultKey;
 import com.music.api.seeds.SeedTrackView;
 import com.music.api.similarity.CandidateMappingService;
-import com.music.api.similarity.CandidateMappingService.MappedTrack;
 import com.music.api.similarity.RankingService;
 import com.music.api.similarity.RankingService.RankedTrack;
+import com.music.api.similarity.RankingStrategies;
+import com.music.api.similarity.RankingStrategy;
 import com.music.api.similarity.SimilarityService;
-import com.music.api.similarity.SimilarityService.SimilarityResult;
 import com.music.api.spotify.SpotifyApiClient;
 import com.music.api.spotify.SpotifyApiClient.SeedTrack;
 import com.music.api.spotify.TrackIdNormalizer;
 
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 @Service
 public class RecommendationService {
 
@@ -35,6 +40,9 @@ public class RecommendationService {
     private final SimilarityService similarityService;
     private final CandidateMappingService candidateMappingService;
     private final RankingService rankingService;
+    private final RankingStrategies rankingStrategies;
+    private final FeedbackIndex feedbackIndex;
+    private final RecommendationResultCache resultCache;
 
     public RecommendationService(
         UserAuthRepository userAuthRepository,
@@ -42,7 +50,10 @@ public class RecommendationService {
         SpotifyApiClient spotifyApiClient,
         SimilarityService similarityService,
         CandidateMappingService candidateMappingService,
-        RankingService rankingService
+        RankingService rankingService,
+        RankingStrategies rankingStrategies,
+        FeedbackIndex feedbackIndex,
+        RecommendationResultCache resultCache
     ) {
         this.userAuthRepository = userAuthRepository;
         this.spotifyAuthService = spotifyAuthService;
@@ -50,24 +61,68 @@ public class RecommendationService {
         this.similarityService = similarityService;
         this.candidateMappingService = candidateMappingService;
         this.rankingService = rankingService;
+        this.rankingStrategies = rankingStrategies;
+        this.feedbackIndex = feedbackIndex;
+        this.resultCache = resultCache;
     }
 
-    public RecommendationResult getRecommendations(UUID userId, String seedTrackId, Integer requestedLimit) {
-        int limit = determineLimit(requestedLimit);
-        UserAuth userAuth = userAuthRepository.findByUserId(userId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User authorization not found"));
-
-        String normalizedTrackId = normalize(seedTrackId);
-        SeedTrack seedTrack = fetchTrackWithRefresh(userAuth, normalizedTrackId);
+    /**
+     * The list is always ranked at {@link #MAX_LIMIT} and cached briefly once every tag lookup has
+     * landed, so repeat requests for the same seed with any limit are served by slicing it until the
+     * user's feedback changes. Upstream calls are composed without blocking; database access runs on
+     * the bounded elastic scheduler.
+     *
+     * @param rankingProfile name of a configured ranking profile, or null for the default
+     */
+    public Mono<RecommendationResult> getRecommendationsReactive(
+        UUID userId,
+        String seedTrackId,
+        Integer requestedLimit,
+        String rankingProfile
+    ) {
+        return Mono.defer(() -> {
+            int limit = determineLimit(requestedLimit);
+            RankingStrategy rankingStrategy = resolveRankingStrategy(rankingProfile);
+            String normalizedTrackId = normalize(seedTrackId);
+            ResultKey cacheKey = new ResultKey(userId, normalizedTrackId, rankingStrategy.name());
+            return Mono.fromCallable(() -> feedbackIndex.forUser(userId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(feedback -> resultCache.get(cacheKey, feedback)
+                    .map(Mono::just)
+                    .orElseGet(() -> computeRecommendations(cacheKey, rankingStrategy, feedback)))
+                .map(result -> result.limitedTo(limit));
+        });
+    }
 
-        SimilarityResult result = similarityService.getSimilarTracks(seedTrack.artist(), seedTrack.name());
-    List<MappedTrack> mapped = candidateMappingService.mapCandidates(userAuth, result.tracks(), limit);
-        List<RankedTrack> ranked = rankingService.rank(userAuth, seedTrack.artist(), mapped).stream()
-            .filter(track -> track.spotifyId() != null)
-            .limit(limit)
-            .collect(Collectors.toList());
+    private Mono<RecommendationResult> computeRecommendations(
+        ResultKey cacheKey,
+        RankingStrategy rankingStrategy,
+        UserFeedback feedback
+    ) {
+        // Read before ranking starts, so a vote landing mid-computation leaves the entry already stale
+        long feedbackVersion = feedback.version();
+        return Mono.fromCallable(() -> userAuthRepository.findByUserId(cacheKey.userId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User authorization not found")))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(userAuth -> fetchTrackWithRefresh(userAuth, cacheKey.seedTrackId())
+                .flatMap(seedTrack -> similarityService.getSimilarTracksReactive(seedTrack.artist(), seedTrack.name())
+                    .flatMap(result -> candidateMappingService.mapCandidatesReactive(userAuth, result.tracks(), MAX_LIMIT)
+                        .flatMap(mapped -> rankingService.rankTopReactive(seedTrack.artist(), mapped, MAX_LIMIT, rankingStrategy, feedback))
+                        .map(ranked -> new RecommendationResult(
+                            SeedTrackView.fromSeedTrack(seedTrack),
+                            result.strategy(),
+                            rankingStrategy.name(),
+                            List.copyOf(ranked)
+                        )))))
+            .doOnNext(full -> resultCache.put(cacheKey, full, feedback, feedbackVersion));
+    }
 
-        return new RecommendationResult(SeedTrackView.fromSeedTrack(seedTrack), result.strategy(), ranked);
+    private RankingStrategy resolveRankingStrategy(String rankingProfile) {
+        try {
+            return rankingStrategies.resolve(rankingProfile);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
     }
 
     private int determineLimit(Integer requestedLimit) {
@@ -77,19 +132,19 @@ public class RecommendationService {
         return Math.min(requestedLimit, MAX_LIMIT);
     }
 
-    private SeedTrack fetchTrackWithRefresh(UserAuth userAuth, String trackId) {
-        try {
-            return spotifyApiClient.getTrack(userAuth.accessToken(), trackId);
-        } catch (WebClientResponseException ex) {
-            if (ex.getStatusCode().value() == 401) {
-                UserAuth refreshed = spotifyAuthService.refreshAccessToken(userAuth);
-                return spotifyApiClient.getTrack(refreshed.accessToken(), trackId);
-            }
-            if (ex.getStatusCode().value() == 404) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Seed track not found on Spotify");
-            }
-            throw ex;
-        }
+    private Mono<SeedTrack> fetchTrackWithRefresh(UserAuth userAuth, String trackId) {
+        return spotifyApiClient.getTrackReactive(userAuth.accessToken(), trackId)
+            .onErrorResume(WebClientResponseException.class, ex -> {
+                if (ex.getStatusCode().value() == 401) {
+                    return spotifyAuthService.refreshAccessTokenReactive(userAuth)
+                        .flatMap(refreshed -> spotifyApiClient.getTrackReactive(refreshed.accessToken(), trackId));
+                }
+                if (ex.getStatusCode().value() == 404) {
+                    return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Seed track not found on Spotify"));
+                }
+                return Mono.error(ex);
+            })
+            .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Seed track not found on Spotify")));
     }
 
     private String normalize(String rawTrackId) {
@@ -103,6 +158,15 @@ public class RecommendationService {
     public record RecommendationResult(
         SeedTrackView seed,
         String strategy,
+        String rankingProfile,
         List<RankedTrack> tracks
-    ) {}
+    ) {
+
+        RecommendationResult limitedTo(int limit) {
+            if (tracks.size() <= limit) {
+                return this;
+            }
+            return new RecommendationResult(seed, strategy, rankingProfile, tracks.subList(0, limit));
+        }
+    }
 }
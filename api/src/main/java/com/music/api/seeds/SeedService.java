@@ -1,5 +1,6 @@
 package com.music.api.seeds;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -162,24 +163,14 @@ public class SeedService {
                     if (!latestAuth.accessToken().equals(currentAuth.accessToken())) {
                         currentAuth = latestAuth;
                         // Small delay to let any in-flight refresh complete
-                        try {
-                            Thread.sleep(50 * attempt); // 50ms, 100ms, 150ms delays
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                            throw new RuntimeException("Interrupted during token refresh retry", ie);
-                        }
+                        pauseBeforeRetry(attempt);
                         continue; // Retry with new token
                     }
                     
                     // Token unchanged, refresh it
                     currentAuth = spotifyAuthService.refreshAccessToken(latestAuth);
                     // Small delay before retry
-                    try {
-                        Thread.sleep(50 * attempt);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new RuntimeException("Interrupted during token refresh retry", ie);
-                    }
+                    pauseBeforeRetry(attempt);
                     continue; // Retry with refreshed token
                 }
                 if (ex.getStatusCode().value() == HttpStatus.FORBIDDEN.value()) {
@@ -193,5 +184,18 @@ public class SeedService {
         throw new RuntimeException("Failed to fetch after " + maxRetries + " attempts");
     }
 
+    /**
+     * Sleeps 50ms, 100ms, 150ms for successive attempts. Callers hold no monitor, so on a virtual
+     * thread the sleep unmounts it instead of pinning its carrier.
+     */
+    private static void pauseBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(Duration.ofMillis(50L * attempt));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during token refresh retry", ie);
+        }
+    }
+
     private record FetchResult(UserAuth userAuth, List<SeedTrack> tracks) {}
 }
@@ -1,93 +1,191 @@
 package com.music.api.similarity;
 
-import java.util.Collections;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.music.api.similarity.ArtistTagsRepository.CachedTags;
+import com.music.api.support.BoundedWorkQueue;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Resolves MusicBrainz tags for artists through the {@code artist_tags} cache. Every MusicBrainz
+ * lookup, whether for a request or a background refresh, goes through one application-wide queue
+ * so the number of calls waiting on the MusicBrainz rate limiter stays fixed however many requests
+ * are in flight.
+ */
 @Service
-public class ArtistTagService {
+public class ArtistTagService implements DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(ArtistTagService.class);
 
     private final ArtistTagsRepository repository;
     private final MusicBrainzClient musicBrainzClient;
     private final ObjectMapper objectMapper;
+    private final TagVocabulary tagVocabulary;
+    private final CacheRefresher cacheRefresher;
+    private final BoundedWorkQueue<String, TagSet> fetchQueue;
 
     private static final TypeReference<List<String>> LIST_TYPE = new TypeReference<>() {};
 
     public ArtistTagService(
         ArtistTagsRepository repository,
         MusicBrainzClient musicBrainzClient,
-        ObjectMapper objectMapper
+        ObjectMapper objectMapper,
+        TagVocabulary tagVocabulary,
+        CacheRefresher cacheRefresher,
+        SimilarityProperties similarityProperties,
+        MeterRegistry meterRegistry
     ) {
         this.repository = repository;
         this.musicBrainzClient = musicBrainzClient;
         this.objectMapper = objectMapper;
+        this.tagVocabulary = tagVocabulary;
+        this.cacheRefresher = cacheRefresher;
+        this.fetchQueue = new BoundedWorkQueue<>(
+            "artist_tags",
+            similarityProperties.getTagFetchQueueCapacity(),
+            similarityProperties.getTagFetchParallelism(),
+            this::fetchAndCache,
+            meterRegistry
+        );
     }
 
-    public Set<String> getTags(String artistName) {
-        if (artistName == null || artistName.isBlank()) {
-            return Collections.emptySet();
-        }
-        return repository.findFreshTags(artistName)
-            .flatMap(json -> deserialize(json, artistName))
-            .orElseGet(() -> fetchAndCache(artistName));
+    @Override
+    public void destroy() {
+        fetchQueue.dispose();
     }
 
-    private Set<String> fetchAndCache(String artistName) {
-        List<String> tags = musicBrainzClient.fetchArtistTags(artistName);
-        if (!tags.isEmpty()) {
-            try {
-                repository.upsert(artistName, objectMapper.writeValueAsString(tags));
-            } catch (JsonProcessingException ex) {
-                log.warn("Failed to cache tags for {}: {}", artistName, ex.getMessage());
-            }
+    /**
+     * Resolves tags for many artists at once: cached rows are read in one query and misses are
+     * queued for MusicBrainz, sharing any lookup already queued for the same artist. Blank names
+     * are ignored. Waits at most {@code budget} for MusicBrainz; artists not resolved by then are
+     * reported in {@link TagLookup#pending()}, and their lookups stay queued and land in
+     * {@code artist_tags} for later requests. Artists whose lookup failed or did not fit in the
+     * queue are reported as pending too, since their tags are just as unknown. A zero budget waits
+     * for all. The cache query runs on
+     * the bounded elastic scheduler and the deadline is a timer rather than a parked thread.
+     */
+    public Mono<TagLookup> getTagsReactive(Collection<String> artistNames, Duration budget) {
+        List<String> distinct = artistNames.stream()
+            .filter(Objects::nonNull)
+            .filter(name -> !name.isBlank())
+            .distinct()
+            .toList();
+        if (distinct.isEmpty()) {
+            return Mono.just(new TagLookup(Map.of(), Set.of()));
         }
-        return tags.stream()
-            .map(this::normalize)
-            .filter(tag -> !tag.isBlank())
-            .collect(Collectors.toCollection(HashSet::new));
+
+        return Mono.fromCallable(() -> repository.findFreshTags(distinct))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(cached -> {
+                Map<String, TagSet> resolved = new HashMap<>();
+                List<String> misses = new ArrayList<>();
+                for (String artistName : distinct) {
+                    CachedTags entry = cached.get(artistName);
+                    Optional<TagSet> tags = entry != null ? deserialize(entry.json(), artistName) : Optional.empty();
+                    if (tags.isEmpty()) {
+                        misses.add(artistName);
+                        continue;
+                    }
+                    if (entry.stale()) {
+                        refreshInBackground(artistName);
+                    }
+                    resolved.put(artistName, tags.get());
+                }
+
+                if (misses.isEmpty()) {
+                    return Mono.just(new TagLookup(resolved, Set.of()));
+                }
+                return fetchMisses(misses, resolved, budget);
+            });
     }
 
-    private Optional<Set<String>> deserialize(String json, String artist) {
-        try {
-            List<String> tags = objectMapper.readValue(json, LIST_TYPE);
-            return Optional.of(tags.stream()
-                .map(this::normalize)
-                .filter(tag -> !tag.isBlank())
-                .collect(Collectors.toCollection(HashSet::new)));
-        } catch (JsonProcessingException ex) {
-            log.warn("Failed to deserialize tags for {}: {}", artist, ex.getMessage());
-            return Optional.empty();
+    private Mono<TagLookup> fetchMisses(List<String> misses, Map<String, TagSet> resolved, Duration budget) {
+        // Waiting here does not hold the lookups: anything unresolved at the deadline stays in the
+        // queue and is cached by fetchAndCache.
+        Map<String, TagSet> fetched = new ConcurrentHashMap<>();
+        Mono<Void> finished = Flux.fromIterable(misses)
+            .flatMap(artistName -> fetchShared(artistName)
+                .doOnNext(tags -> fetched.put(artistName, tags))
+                .onErrorResume(ex -> {
+                    log.warn("Tag lookup failed for {}: {}", artistName, ex.getMessage());
+                    return Mono.empty();
+                }))
+            .then();
+        if (budget != null && budget.isPositive()) {
+            // Deadline reached; unresolved artists are reported as pending
+            finished = finished.timeout(budget, Mono.empty());
         }
+
+        return finished.then(Mono.fromSupplier(() -> {
+            Set<String> pending = new HashSet<>();
+            for (String artistName : misses) {
+                TagSet tags = fetched.get(artistName);
+                if (tags != null) {
+                    resolved.put(artistName, tags);
+                } else {
+                    pending.add(artistName);
+                }
+            }
+            if (!pending.isEmpty()) {
+                log.debug("Tags for {} artists unresolved within the budget of {}", pending.size(), budget);
+            }
+            return new TagLookup(resolved, pending);
+        }));
     }
 
-    private String normalize(String value) {
-        return value == null ? "" : value.trim().toLowerCase();
+    private void refreshInBackground(String artistName) {
+        cacheRefresher.refreshAsync("artist_tags", artistName, () -> fetchShared(artistName).block());
     }
 
-    public double jaccard(Set<String> a, Set<String> b) {
-        if (a.isEmpty() || b.isEmpty()) {
-            return 0.0;
-        }
-        Set<String> intersection = new HashSet<>(a);
-        intersection.retainAll(b);
-        if (intersection.isEmpty()) {
-            return 0.0;
+    private Mono<TagSet> fetchShared(String artistName) {
+        return fetchQueue.submit(artistName);
+    }
+
+    private Mono<TagSet> fetchAndCache(String artistName) {
+        return musicBrainzClient.fetchArtistTagsReactive(artistName)
+            .publishOn(Schedulers.boundedElastic())
+            .map(tags -> {
+                if (!tags.isEmpty()) {
+                    try {
+                        repository.upsert(artistName, objectMapper.writeValueAsString(tags));
+                    } catch (JsonProcessingException ex) {
+                        log.warn("Failed to cache tags for {}: {}", artistName, ex.getMessage());
+                    }
+                }
+                return tagVocabulary.encode(tags);
+            });
+    }
+
+    public record TagLookup(Map<String, TagSet> tags, Set<String> pending) {}
+
+    private Optional<TagSet> deserialize(String json, String artist) {
+        try {
+            return Optional.of(tagVocabulary.encode(objectMapper.readValue(json, LIST_TYPE)));
+        } catch (JsonProcessingException ex) {
+            log.warn("Failed to deserialize tags for {}: {}", artist, ex.getMessage());
+            return Optional.empty();
         }
-        Set<String> union = new HashSet<>(a);
-        union.addAll(b);
-        return union.isEmpty() ? 0.0 : (double) intersection.size() / union.size();
     }
 }
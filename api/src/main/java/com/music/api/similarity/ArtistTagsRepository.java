@@ -2,6 +2,8 @@ package com.music.api.similarity;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -15,26 +17,51 @@ public class ArtistTagsRepository {
     private static final Duration TTL = Duration.ofDays(30);
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final CacheProperties cacheProperties;
 
-    public ArtistTagsRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    public ArtistTagsRepository(NamedParameterJdbcTemplate jdbcTemplate, CacheProperties cacheProperties) {
         this.jdbcTemplate = jdbcTemplate;
+        this.cacheProperties = cacheProperties;
     }
 
-    public Optional<String> findFreshTags(String artistName) {
+    public Optional<CachedTags> findFreshTags(String artistName) {
         String sql = """
             SELECT tags_json::text, cached_at
             FROM artist_tags
             WHERE artist_name = :artistName
               AND source = 'musicbrainz'
+              AND cached_at > NOW() - (:maxAgeSeconds * INTERVAL '1 second')
             """;
-        return jdbcTemplate.query(sql, Map.of("artistName", artistName), (rs, rowNum) -> {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("artistName", artistName)
+            .addValue("maxAgeSeconds", cacheProperties.maxServableAgeSeconds(TTL));
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
             Instant cachedAt = rs.getTimestamp("cached_at").toInstant();
-            if (cachedAt.plus(TTL).isBefore(Instant.now())) {
-                delete(artistName);
-                return null;
-            }
-            return rs.getString(1);
-        }).stream().filter(value -> value != null).findFirst();
+            return new CachedTags(rs.getString(1), cachedAt.plus(TTL).isBefore(Instant.now()));
+        }).stream().findFirst();
+    }
+
+    public Map<String, CachedTags> findFreshTags(Collection<String> artistNames) {
+        if (artistNames.isEmpty()) {
+            return Map.of();
+        }
+        String sql = """
+            SELECT artist_name, tags_json::text, cached_at
+            FROM artist_tags
+            WHERE artist_name = ANY(:artistNames)
+              AND source = 'musicbrainz'
+              AND cached_at > NOW() - (:maxAgeSeconds * INTERVAL '1 second')
+            """;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("artistNames", artistNames.stream().distinct().toArray(String[]::new))
+            .addValue("maxAgeSeconds", cacheProperties.maxServableAgeSeconds(TTL));
+        Map<String, CachedTags> entries = new HashMap<>();
+        Instant now = Instant.now();
+        jdbcTemplate.query(sql, params, rs -> {
+            Instant cachedAt = rs.getTimestamp("cached_at").toInstant();
+            entries.put(rs.getString("artist_name"), new CachedTags(rs.getString(2), cachedAt.plus(TTL).isBefore(now)));
+        });
+        return entries;
     }
 
     public void upsert(String artistName, String tagsJson) {
@@ -50,15 +77,10 @@ public class ArtistTagsRepository {
         jdbcTemplate.update(sql, params);
     }
 
-    private void delete(String artistName) {
-        String sql = """
-            DELETE FROM artist_tags WHERE artist_name = :artistName AND source = 'musicbrainz'
-            """;
-        jdbcTemplate.update(sql, Map.of("artistName", artistName));
-    }
-
     public int purgeExpired() {
-        String sql = "DELETE FROM artist_tags WHERE cached_at < NOW() - INTERVAL '30 days'";
-        return jdbcTemplate.update(sql, new MapSqlParameterSource());
+        String sql = "DELETE FROM artist_tags WHERE cached_at < NOW() - (:maxAgeSeconds * INTERVAL '1 second')";
+        return jdbcTemplate.update(sql, Map.of("maxAgeSeconds", cacheProperties.maxServableAgeSeconds(TTL)));
     }
+
+    public record CachedTags(String json, boolean stale) {}
 }
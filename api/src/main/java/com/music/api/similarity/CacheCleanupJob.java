@@ -12,16 +12,22 @@ public class CacheCleanupJob {
 
     private final TrackCacheRepository trackCacheRepository;
     private final IdMapRepository idMapRepository;
+    private final IdMapMissRepository idMapMissRepository;
     private final ArtistTagsRepository artistTagsRepository;
+    private final LastFmCacheRepository lastFmCacheRepository;
 
     public CacheCleanupJob(
         TrackCacheRepository trackCacheRepository,
         IdMapRepository idMapRepository,
-        ArtistTagsRepository artistTagsRepository
+        IdMapMissRepository idMapMissRepository,
+        ArtistTagsRepository artistTagsRepository,
+        LastFmCacheRepository lastFmCacheRepository
     ) {
         this.trackCacheRepository = trackCacheRepository;
         this.idMapRepository = idMapRepository;
+        this.idMapMissRepository = idMapMissRepository;
         this.artistTagsRepository = artistTagsRepository;
+        this.lastFmCacheRepository = lastFmCacheRepository;
     }
 
     // Run daily at 03:00 server time
@@ -29,9 +35,12 @@ public class CacheCleanupJob {
     public void purgeStaleCacheRows() {
         int trackDeleted = trackCacheRepository.purgeExpired();
         int idMapDeleted = idMapRepository.purgeExpired();
+        int idMapMissDeleted = idMapMissRepository.purgeExpired();
         int tagsDeleted = artistTagsRepository.purgeExpired();
-        if (trackDeleted + idMapDeleted + tagsDeleted > 0) {
-            log.info("Cache cleanup removed entries - track_cache: {}, id_map: {}, artist_tags: {}", trackDeleted, idMapDeleted, tagsDeleted);
+        int similarityDeleted = lastFmCacheRepository.purgeExpired();
+        if (trackDeleted + idMapDeleted + idMapMissDeleted + tagsDeleted + similarityDeleted > 0) {
+            log.info("Cache cleanup removed entries - track_cache: {}, id_map: {}, id_map_miss: {}, artist_tags: {}, lastfm_similarity_cache: {}",
+                trackDeleted, idMapDeleted, idMapMissDeleted, tagsDeleted, similarityDeleted);
         }
     }
 }
@@ -0,0 +1,49 @@
+package com.music.api.similarity;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+    /**
+     * Serve entries that are past their TTL but still inside the grace window while a
+     * background task refreshes them. Off by default, so expired entries are refetched
+     * synchronously unless stale data is explicitly acceptable.
+     */
+    private boolean staleWhileRevalidate = false;
+
+    /**
+     * How long past its TTL an entry may still be served when stale-while-revalidate is enabled.
+     */
+    private Duration staleGrace = Duration.ofDays(1);
+
+    public boolean isStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public void setStaleWhileRevalidate(boolean staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
+    public Duration getStaleGrace() {
+        return staleGrace;
+    }
+
+    public void setStaleGrace(Duration staleGrace) {
+        this.staleGrace = staleGrace;
+    }
+
+    /**
+     * Oldest age, in seconds, at which a row with the given TTL may still be returned.
+     */
+    long maxServableAgeSeconds(Duration ttl) {
+        Duration maxAge = staleWhileRevalidate && staleGrace != null && !staleGrace.isNegative()
+            ? ttl.plus(staleGrace)
+            : ttl;
+        return maxAge.toSeconds();
+    }
+}
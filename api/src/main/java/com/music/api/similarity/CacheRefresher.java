@@ -0,0 +1,64 @@
+package com.music.api.similarity;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs background refreshes for stale cache entries. At most one refresh per cache key is
+ * queued or running at a time; further requests for the same key are dropped.
+ */
+@Component
+public class CacheRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheRefresher.class);
+
+    private final TaskExecutor taskExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public CacheRefresher(
+        @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+        MeterRegistry meterRegistry
+    ) {
+        this.taskExecutor = taskExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void refreshAsync(String cacheName, String key, Runnable refresh) {
+        String pendingKey = cacheName + ":" + key;
+        if (!pending.add(pendingKey)) {
+            record(cacheName, "coalesced");
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    refresh.run();
+                    record(cacheName, "refreshed");
+                } catch (Exception ex) {
+                    record(cacheName, "failed");
+                    log.warn("Background refresh of {} failed: {}", pendingKey, ex.getMessage());
+                } finally {
+                    pending.remove(pendingKey);
+                }
+            });
+        } catch (TaskRejectedException ex) {
+            pending.remove(pendingKey);
+            record(cacheName, "rejected");
+            log.debug("Background refresh of {} rejected: {}", pendingKey, ex.getMessage());
+        }
+    }
+
+    private void record(String cacheName, String outcome) {
+        meterRegistry.counter("cache.refresh", "cache", cacheName, "outcome", outcome).increment();
+    }
+}
@@ -1,11 +1,14 @@
 package com.music.api.similarity;
 
-import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,150 +23,276 @@ import com.music.api.similarity.TrackCacheRepository.TrackCacheEntry;
 import com.music.api.spotify.SpotifyApiClient;
 import com.music.api.spotify.SpotifyApiClient.SeedTrack;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 @Service
 public class CandidateMappingService {
 
     private static final Logger log = LoggerFactory.getLogger(CandidateMappingService.class);
 
     private final IdMapRepository idMapRepository;
+    private final IdMapMissRepository idMapMissRepository;
     private final SpotifyApiClient spotifyApiClient;
     private final SpotifyAuthService spotifyAuthService;
     private final TrackCacheService trackCacheService;
+    private final CacheRefresher cacheRefresher;
+    private final SimilarityProperties similarityProperties;
 
     public CandidateMappingService(
         IdMapRepository idMapRepository,
+        IdMapMissRepository idMapMissRepository,
         SpotifyApiClient spotifyApiClient,
         SpotifyAuthService spotifyAuthService,
-        TrackCacheService trackCacheService
+        TrackCacheService trackCacheService,
+        CacheRefresher cacheRefresher,
+        SimilarityProperties similarityProperties
     ) {
         this.idMapRepository = idMapRepository;
+        this.idMapMissRepository = idMapMissRepository;
         this.spotifyApiClient = spotifyApiClient;
         this.spotifyAuthService = spotifyAuthService;
         this.trackCacheService = trackCacheService;
+        this.cacheRefresher = cacheRefresher;
+        this.similarityProperties = similarityProperties;
     }
 
-    public List<MappedTrack> mapCandidates(UserAuth userAuth, List<LastFmTrack> candidates, int desiredCount) {
+    /**
+     * Maps Last.fm candidates to Spotify tracks without blocking. Spotify searches, track lookups
+     * and token refreshes are reactive; only the id map and track cache queries and writes run on
+     * the bounded elastic scheduler.
+     */
+    public Mono<List<MappedTrack>> mapCandidatesReactive(UserAuth userAuth, List<LastFmTrack> candidates, int desiredCount) {
         int positiveDesired = Math.max(desiredCount, 0);
         int processingBudget = positiveDesired > 0
             ? Math.min(candidates.size(), Math.max(positiveDesired * 3, positiveDesired + 15))
             : candidates.size();
         int mappedThreshold = positiveDesired > 0 ? Math.max(positiveDesired * 2, positiveDesired + 5) : Integer.MAX_VALUE;
+        List<LastFmTrack> budgeted = candidates.subList(0, processingBudget);
 
-        List<MappedTrack> mapped = new ArrayList<>(Math.min(processingBudget, candidates.size()));
-        UserAuth currentAuth = userAuth;
-        int processed = 0;
-        int mappedWithSpotify = 0;
-        Set<String> dedupeKeys = new LinkedHashSet<>();
+        return loadCachedLookups(userAuth, budgeted)
+            .flatMap(lookups -> {
+                RequestAuth requestAuth = new RequestAuth(userAuth);
+                Set<String> dedupeKeys = new LinkedHashSet<>();
+                AtomicInteger mappedWithSpotify = new AtomicInteger();
+                int parallelism = Math.max(1, similarityProperties.getMappingParallelism());
 
-        for (LastFmTrack candidate : candidates) {
-            if (processed >= processingBudget) {
-                break;
-            }
-            processed++;
-
-            String normalizedKey = SimilarityKeys.normalize(candidate.artist(), candidate.name());
-
-            Optional<IdMapEntry> cached = idMapRepository.findFresh(normalizedKey);
-            MappedTrack mappedTrack;
-            if (cached.isPresent()) {
-                IdMapEntry entry = cached.get();
-                double confidence = entry.confidence() != null ? entry.confidence() : 1.0;
-                Optional<TrackCacheEntry> cachedTrack = trackCacheService.getTrack(currentAuth, entry.spotifyId());
-                String dedupeKey = buildDedupeKey(
-                    cachedTrack.map(TrackCacheEntry::isrc).orElse(null),
-                    cachedTrack.map(TrackCacheEntry::artist).orElse(candidate.artist()),
-                    cachedTrack.map(TrackCacheEntry::name).orElse(candidate.name())
-                );
-                if (!dedupeKeys.add(dedupeKey)) {
-                    continue;
-                }
-                mappedTrack = new MappedTrack(
-                    candidate,
-                    entry.spotifyId(),
-                    confidence,
-                    true,
-                    cachedTrack.map(TrackCacheEntry::imageUrl).orElse(null),
-                    cachedTrack.map(TrackCacheEntry::isrc).orElse(null)
-                );
-            } else {
-                SearchResult searchResult = performSearch(currentAuth, candidate);
-                if (searchResult != null) {
-                    currentAuth = searchResult.userAuth();
-                    if (searchResult.track() != null) {
-                        double confidence = candidate.matchScore() > 0 ? candidate.matchScore() : 1.0;
-                        SeedTrack track = searchResult.track();
-                        idMapRepository.upsert(normalizedKey, track.id(), confidence);
-                        buildIsrcKey(track.isrc()).ifPresent(isrcKey -> idMapRepository.upsert(isrcKey, track.id(), confidence));
-                        trackCacheService.cacheSeedTrack(track);
-
-                        String dedupeKey = buildDedupeKey(track.isrc(), track.artist(), track.name());
-                        if (!dedupeKeys.add(dedupeKey)) {
-                            continue;
+                // Searches for unmapped candidates run concurrently, but results are emitted in candidate
+                // order so dedupe and the early stop behave exactly as in a sequential pass. Reaching the
+                // threshold cancels any searches still in flight.
+                return Flux.fromIterable(budgeted)
+                    .flatMapSequential(candidate -> {
+                        String normalizedKey = SimilarityKeys.normalize(candidate.artist(), candidate.name());
+                        IdMapEntry entry = lookups.mappings().get(normalizedKey);
+                        if (entry != null) {
+                            return Mono.just(fromCachedMapping(requestAuth, candidate, normalizedKey, entry, lookups.tracks()));
                         }
-                        mappedTrack = new MappedTrack(
-                            candidate,
-                            track.id(),
-                            confidence,
-                            false,
-                            track.imageUrl(),
-                            track.isrc()
-                        );
-                    } else {
-                        String dedupeKey = buildDedupeKey(null, candidate.artist(), candidate.name());
-                        if (!dedupeKeys.add(dedupeKey)) {
-                            continue;
+                        if (lookups.knownMisses().contains(normalizedKey)) {
+                            return Mono.just(unmapped(candidate));
                         }
-                        mappedTrack = new MappedTrack(candidate, null, 0.0, false, null, null);
-                    }
-                } else {
-                    String dedupeKey = buildDedupeKey(null, candidate.artist(), candidate.name());
-                    if (!dedupeKeys.add(dedupeKey)) {
-                        continue;
+                        return fromSearch(requestAuth, candidate, normalizedKey);
+                    }, parallelism)
+                    .filter(resolved -> dedupeKeys.add(resolved.dedupeKey()))
+                    .map(ResolvedCandidate::track)
+                    .takeUntil(track -> track.spotifyId() != null && mappedWithSpotify.incrementAndGet() >= mappedThreshold)
+                    .collectList();
+            });
+    }
+
+    private Mono<CachedLookups> loadCachedLookups(UserAuth userAuth, List<LastFmTrack> budgeted) {
+        // Resolve every cached mapping within the processing budget in one query
+        List<String> budgetedKeys = budgeted.stream()
+            .map(candidate -> SimilarityKeys.normalize(candidate.artist(), candidate.name()))
+            .toList();
+        return Mono.fromCallable(() -> {
+                Map<String, IdMapEntry> cachedMappings = idMapRepository.findFresh(budgetedKeys);
+                // Candidates Spotify recently failed to match are skipped without a search
+                Set<String> knownMisses = idMapMissRepository.findFresh(budgetedKeys.stream()
+                    .filter(key -> !cachedMappings.containsKey(key))
+                    .toList());
+                return new CachedLookups(cachedMappings, knownMisses, Map.of());
+            })
+            .subscribeOn(Schedulers.boundedElastic())
+            // Hydrate the Spotify metadata for those mappings in one batch
+            .flatMap(lookups -> trackCacheService.getTracks(userAuth, lookups.mappings().values().stream()
+                    .map(IdMapEntry::spotifyId)
+                    .toList())
+                .map(cachedTracks -> new CachedLookups(lookups.mappings(), lookups.knownMisses(), cachedTracks)));
+    }
+
+    private ResolvedCandidate fromCachedMapping(
+        RequestAuth requestAuth,
+        LastFmTrack candidate,
+        String normalizedKey,
+        IdMapEntry entry,
+        Map<String, TrackCacheEntry> cachedTracks
+    ) {
+        if (idMapRepository.isStale(entry)) {
+            UserAuth refreshAuth = requestAuth.current();
+            cacheRefresher.refreshAsync("id_map", normalizedKey, () -> refreshMapping(refreshAuth, candidate, normalizedKey));
+        }
+        double confidence = entry.confidence() != null ? entry.confidence() : 1.0;
+        Optional<TrackCacheEntry> cachedTrack = Optional.ofNullable(cachedTracks.get(entry.spotifyId()));
+        String dedupeKey = buildDedupeKey(
+            cachedTrack.map(TrackCacheEntry::isrc).orElse(null),
+            cachedTrack.map(TrackCacheEntry::artist).orElse(candidate.artist()),
+            cachedTrack.map(TrackCacheEntry::name).orElse(candidate.name())
+        );
+        return new ResolvedCandidate(
+            new MappedTrack(candidate, entry.spotifyId(), confidence, true, cachedTrack.orElse(null)),
+            dedupeKey
+        );
+    }
+
+    private Mono<ResolvedCandidate> fromSearch(RequestAuth requestAuth, LastFmTrack candidate, String normalizedKey) {
+        return performSearch(requestAuth, candidate)
+            .publishOn(Schedulers.boundedElastic())
+            .map(outcome -> {
+                if (outcome.track() == null) {
+                    if (!outcome.failed()) {
+                        idMapMissRepository.upsert(normalizedKey);
                     }
-                    mappedTrack = new MappedTrack(candidate, null, 0.0, false, null, null);
+                    return unmapped(candidate);
                 }
-            }
+                SeedTrack track = outcome.track();
+                double confidence = candidate.matchScore() > 0 ? candidate.matchScore() : 1.0;
+                TrackCacheEntry details = persistMapping(normalizedKey, track, confidence);
+                return new ResolvedCandidate(
+                    new MappedTrack(candidate, track.id(), confidence, false, details),
+                    buildDedupeKey(track.isrc(), track.artist(), track.name())
+                );
+            });
+    }
 
-            mapped.add(mappedTrack);
-            if (mappedTrack.spotifyId() != null) {
-                mappedWithSpotify++;
-                if (mappedWithSpotify >= mappedThreshold) {
-                    break;
-                }
-            }
+    private ResolvedCandidate unmapped(LastFmTrack candidate) {
+        return new ResolvedCandidate(
+            new MappedTrack(candidate, null, 0.0, false, null),
+            buildDedupeKey(null, candidate.artist(), candidate.name())
+        );
+    }
+
+    private void refreshMapping(UserAuth userAuth, LastFmTrack candidate, String normalizedKey) {
+        SeedTrack track = performSearch(new RequestAuth(userAuth), candidate).block().track();
+        if (track != null) {
+            double confidence = candidate.matchScore() > 0 ? candidate.matchScore() : 1.0;
+            persistMapping(normalizedKey, track, confidence);
         }
+    }
 
-        return mapped;
+    private TrackCacheEntry persistMapping(String normalizedKey, SeedTrack track, double confidence) {
+        idMapRepository.upsert(normalizedKey, track.id(), confidence);
+        buildIsrcKey(track.isrc()).ifPresent(isrcKey -> idMapRepository.upsert(isrcKey, track.id(), confidence));
+        return trackCacheService.cacheSeedTrack(track);
     }
 
-    private SearchResult performSearch(UserAuth userAuth, LastFmTrack candidate) {
-        try {
-            SeedTrack track = spotifyApiClient.searchTrack(userAuth.accessToken(), candidate.name(), candidate.artist());
-            return new SearchResult(track, userAuth);
-        } catch (WebClientResponseException ex) {
-            if (ex.getStatusCode().value() == 401) {
-                UserAuth refreshed = spotifyAuthService.refreshAccessToken(userAuth);
-                SeedTrack track = spotifyApiClient.searchTrack(refreshed.accessToken(), candidate.name(), candidate.artist());
-                return new SearchResult(track, refreshed);
-            }
-            log.debug("Spotify search failed for {} - {}: {}", candidate.artist(), candidate.name(), ex.getStatusCode());
-            return null;
-        } catch (Exception ex) {
-            log.debug("Spotify search error for {} - {}: {}", candidate.artist(), candidate.name(), ex.getMessage());
-            return null;
-        }
+    private Mono<SearchOutcome> performSearch(RequestAuth requestAuth, LastFmTrack candidate) {
+        UserAuth attemptAuth = requestAuth.current();
+        return search(attemptAuth, candidate)
+            .onErrorResume(WebClientResponseException.class, ex -> ex.getStatusCode().value() == 401
+                ? requestAuth.refreshAfterUnauthorized(attemptAuth).flatMap(refreshed -> search(refreshed, candidate))
+                : Mono.error(ex))
+            .onErrorResume(ex -> {
+                if (ex instanceof WebClientResponseException responseException) {
+                    log.debug("Spotify search failed for {} - {}: {}", candidate.artist(), candidate.name(), responseException.getStatusCode());
+                } else {
+                    log.debug("Spotify search error for {} - {}: {}", candidate.artist(), candidate.name(), ex.getMessage());
+                }
+                return Mono.just(SearchOutcome.FAILED);
+            });
     }
 
+    private Mono<SearchOutcome> search(UserAuth userAuth, LastFmTrack candidate) {
+        return spotifyApiClient.searchTrackReactive(userAuth.accessToken(), candidate.name(), candidate.artist())
+            .map(SearchOutcome::of)
+            .defaultIfEmpty(SearchOutcome.NO_MATCH);
+    }
+
+    /**
+     * A Last.fm candidate with its Spotify mapping. {@code track} holds the Spotify metadata resolved
+     * while mapping, so later stages never look the same id up again; it is null for unmapped
+     * candidates and when hydration failed.
+     */
     public record MappedTrack(
         LastFmTrack source,
         String spotifyId,
         double confidence,
         boolean cached,
-        String spotifyImageUrl,
-        String isrc
+        TrackCacheEntry track
+    ) {
+
+        public String spotifyImageUrl() {
+            return track != null ? track.imageUrl() : null;
+        }
+
+        public String isrc() {
+            return track != null ? track.isrc() : null;
+        }
+
+        public Integer popularity() {
+            return track != null ? track.popularity() : null;
+        }
+    }
+
+    private record CachedLookups(
+        Map<String, IdMapEntry> mappings,
+        Set<String> knownMisses,
+        Map<String, TrackCacheEntry> tracks
     ) {}
 
-    private record SearchResult(SeedTrack track, UserAuth userAuth) {}
+    private record ResolvedCandidate(MappedTrack track, String dedupeKey) {}
+
+    /**
+     * Result of one Spotify search. A null track with {@code failed == false} means Spotify answered
+     * but had no match, which is the only case worth remembering as a miss.
+     */
+    private record SearchOutcome(SeedTrack track, boolean failed) {
+
+        static final SearchOutcome FAILED = new SearchOutcome(null, true);
+        static final SearchOutcome NO_MATCH = new SearchOutcome(null, false);
+
+        static SearchOutcome of(SeedTrack track) {
+            return new SearchOutcome(track, false);
+        }
+    }
+
+    /**
+     * Tracks the access token used by one mapping pass. Concurrent searches that hit a 401 with the
+     * same token share a single refresh; later callers pick up the token it produced.
+     */
+    private final class RequestAuth {
+
+        private final ReentrantLock refreshLock = new ReentrantLock();
+        private volatile UserAuth current;
+        private String refreshedToken;
+        private Mono<UserAuth> refresh;
+
+        RequestAuth(UserAuth userAuth) {
+            this.current = userAuth;
+        }
+
+        UserAuth current() {
+            return current;
+        }
+
+        Mono<UserAuth> refreshAfterUnauthorized(UserAuth failed) {
+            refreshLock.lock();
+            try {
+                if (!Objects.equals(current.accessToken(), failed.accessToken())) {
+                    return Mono.just(current);
+                }
+                if (refresh == null || !Objects.equals(refreshedToken, failed.accessToken())) {
+                    refreshedToken = failed.accessToken();
+                    refresh = spotifyAuthService.refreshAccessTokenReactive(failed)
+                        .doOnNext(refreshed -> current = refreshed)
+                        .cache();
+                }
+                return refresh;
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+    }
 
     private String buildDedupeKey(String isrc, String artist, String track) {
         return buildIsrcKey(isrc).orElse("name:" + SimilarityKeys.normalize(artist, track));
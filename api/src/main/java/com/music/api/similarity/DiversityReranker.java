@@ -0,0 +1,75 @@
+package com.music.api.similarity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maximal marginal relevance selection. Each step picks the candidate that maximises
+ * {@code (1 - w) * relevance - w * maxSimilarityToSelected}, where similarity is 1 for the same
+ * artist and the artist tag Jaccard otherwise. The running maximum similarity is updated
+ * incrementally after every pick, so selecting K of N costs O(K·N) similarity evaluations.
+ */
+final class DiversityReranker {
+
+    private DiversityReranker() {
+    }
+
+    /**
+     * @param order candidate indices from best to worst by relevance; ties in the MMR objective go
+     *     to the earlier index in this order
+     * @param relevance relevance per candidate index, any scale (min-max normalised here)
+     * @param artistIds interned artist per candidate index
+     * @param tags artist tags per candidate index
+     * @return selected candidate indices in selection order
+     */
+    static List<Integer> select(
+        List<Integer> order,
+        double[] relevance,
+        int[] artistIds,
+        TagSet[] tags,
+        double diversityWeight,
+        int limit
+    ) {
+        int n = relevance.length;
+        int k = Math.min(limit, order.size());
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int index : order) {
+            min = Math.min(min, relevance[index]);
+            max = Math.max(max, relevance[index]);
+        }
+        double range = max - min;
+
+        double relevanceWeight = 1.0 - diversityWeight;
+        double[] maxSimilarity = new double[n];
+        boolean[] taken = new boolean[n];
+        List<Integer> selected = new ArrayList<>(k);
+        for (int step = 0; step < k; step++) {
+            int best = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int index : order) {
+                if (taken[index]) {
+                    continue;
+                }
+                double normalized = range > 0.0 ? (relevance[index] - min) / range : 1.0;
+                double value = relevanceWeight * normalized - diversityWeight * maxSimilarity[index];
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = index;
+                }
+            }
+            taken[best] = true;
+            selected.add(best);
+            for (int index : order) {
+                if (taken[index] || maxSimilarity[index] >= 1.0) {
+                    continue;
+                }
+                double similarity = artistIds[index] == artistIds[best] ? 1.0 : tags[index].jaccard(tags[best]);
+                if (similarity > maxSimilarity[index]) {
+                    maxSimilarity[index] = similarity;
+                }
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,65 @@
+package com.music.api.similarity;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Remembers candidates that Spotify search returned no match for, so they are not searched
+ * again on every request. Entries expire well before positive {@code id_map} rows and are
+ * never served stale.
+ */
+@Repository
+public class IdMapMissRepository {
+
+    private static final Duration TTL = Duration.ofDays(1);
+    private static final String SOURCE_LASTFM = "lastfm";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public IdMapMissRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Set<String> findFresh(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Set.of();
+        }
+        String sql = """
+            SELECT source_key
+            FROM id_map_miss
+            WHERE source = :source
+              AND source_key = ANY(:keys)
+              AND cached_at > NOW() - (:maxAgeSeconds * INTERVAL '1 second')
+            """;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("source", SOURCE_LASTFM)
+            .addValue("keys", keys.stream().distinct().toArray(String[]::new))
+            .addValue("maxAgeSeconds", TTL.toSeconds());
+        return new HashSet<>(jdbcTemplate.queryForList(sql, params, String.class));
+    }
+
+    public void upsert(String key) {
+        String sql = """
+            INSERT INTO id_map_miss (source, source_key, cached_at)
+            VALUES (:source, :key, NOW())
+            ON CONFLICT (source, source_key)
+            DO UPDATE SET cached_at = NOW()
+            """;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("source", SOURCE_LASTFM)
+            .addValue("key", key);
+        jdbcTemplate.update(sql, params);
+    }
+
+    public int purgeExpired() {
+        String sql = "DELETE FROM id_map_miss WHERE cached_at < NOW() - (:maxAgeSeconds * INTERVAL '1 second')";
+        return jdbcTemplate.update(sql, Map.of("maxAgeSeconds", TTL.toSeconds()));
+    }
+}
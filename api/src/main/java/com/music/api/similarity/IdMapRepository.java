@@ -2,6 +2,8 @@ package com.music.api.similarity;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -16,9 +18,11 @@ public class IdMapRepository {
     private static final String SOURCE_LASTFM = "lastfm";
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final CacheProperties cacheProperties;
 
-    public IdMapRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    public IdMapRepository(NamedParameterJdbcTemplate jdbcTemplate, CacheProperties cacheProperties) {
         this.jdbcTemplate = jdbcTemplate;
+        this.cacheProperties = cacheProperties;
     }
 
     public Optional<IdMapEntry> findFresh(String key) {
@@ -27,19 +31,50 @@ public class IdMapRepository {
             FROM id_map
             WHERE source = :source
               AND source_key = :key
+              AND cached_at > NOW() - (:maxAgeSeconds * INTERVAL '1 second')
             """;
-        return jdbcTemplate.query(sql, Map.of("source", SOURCE_LASTFM, "key", key), (rs, rowNum) -> {
-            Instant cachedAt = rs.getTimestamp("cached_at").toInstant();
-            if (cachedAt.plus(TTL).isBefore(Instant.now())) {
-                delete(key);
-                return null;
-            }
-            return new IdMapEntry(
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("source", SOURCE_LASTFM)
+            .addValue("key", key)
+            .addValue("maxAgeSeconds", cacheProperties.maxServableAgeSeconds(TTL));
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new IdMapEntry(
+            rs.getString("spotify_id"),
+            rs.getBigDecimal("confidence") != null ? rs.getBigDecimal("confidence").doubleValue() : null,
+            rs.getTimestamp("cached_at").toInstant()
+        )).stream().findFirst();
+    }
+
+    public Map<String, IdMapEntry> findFresh(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        String sql = """
+            SELECT source_key, spotify_id, confidence, cached_at
+            FROM id_map
+            WHERE source = :source
+              AND source_key = ANY(:keys)
+              AND cached_at > NOW() - (:maxAgeSeconds * INTERVAL '1 second')
+            """;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("source", SOURCE_LASTFM)
+            .addValue("keys", keys.stream().distinct().toArray(String[]::new))
+            .addValue("maxAgeSeconds", cacheProperties.maxServableAgeSeconds(TTL));
+        Map<String, IdMapEntry> entries = new HashMap<>();
+        jdbcTemplate.query(sql, params, rs -> {
+            entries.put(rs.getString("source_key"), new IdMapEntry(
                 rs.getString("spotify_id"),
                 rs.getBigDecimal("confidence") != null ? rs.getBigDecimal("confidence").doubleValue() : null,
-                cachedAt
-            );
-        }).stream().filter(entry -> entry != null).findFirst();
+                rs.getTimestamp("cached_at").toInstant()
+            ));
+        });
+        return entries;
+    }
+
+    /**
+     * Whether the entry is past its TTL and only being served from the stale grace window.
+     */
+    public boolean isStale(IdMapEntry entry) {
+        return entry.cachedAt() != null && entry.cachedAt().plus(TTL).isBefore(Instant.now());
     }
 
     public void upsert(String key, String spotifyId, double confidence) {
@@ -57,17 +92,10 @@ public class IdMapRepository {
         jdbcTemplate.update(sql, params);
     }
 
-    private void delete(String key) {
-        jdbcTemplate.update(
-            "DELETE FROM id_map WHERE source = :source AND source_key = :key",
-            Map.of("source", SOURCE_LASTFM, "key", key)
-        );
-    }
-
     public record IdMapEntry(String spotifyId, Double confidence, Instant cachedAt) {}
 
     public int purgeExpired() {
-        String sql = "DELETE FROM id_map WHERE cached_at < NOW() - INTERVAL '7 days'";
-        return jdbcTemplate.update(sql, new MapSqlParameterSource());
+        String sql = "DELETE FROM id_map WHERE cached_at < NOW() - (:maxAgeSeconds * INTERVAL '1 second')";
+        return jdbcTemplate.update(sql, Map.of("maxAgeSeconds", cacheProperties.maxServableAgeSeconds(TTL)));
     }
 }
@@ -12,29 +12,36 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class LastFmCacheRepository {
 
-    private static final Duration TTL = Duration.ofHours(24);
+    static final Duration TTL = Duration.ofHours(24);
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final CacheProperties cacheProperties;
 
-    public LastFmCacheRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    public LastFmCacheRepository(NamedParameterJdbcTemplate jdbcTemplate, CacheProperties cacheProperties) {
         this.jdbcTemplate = jdbcTemplate;
+        this.cacheProperties = cacheProperties;
     }
 
-    public Optional<String> findFreshResponse(String seedType, String seedKey) {
+    /**
+     * Returns the cached response if it is fresh or, with stale-while-revalidate enabled,
+     * still inside the grace window. Callers check {@link CachedResponse#stale()}.
+     */
+    public Optional<CachedResponse> findFreshResponse(String seedType, String seedKey) {
         String sql = """
             SELECT response_json::text, cached_at
             FROM lastfm_similarity_cache
             WHERE seed_type = :seedType
               AND seed_key = :seedKey
+              AND cached_at > NOW() - (:maxAgeSeconds * INTERVAL '1 second')
             """;
-        return jdbcTemplate.query(sql, Map.of("seedType", seedType, "seedKey", seedKey), (rs, rowNum) -> {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("seedType", seedType)
+            .addValue("seedKey", seedKey)
+            .addValue("maxAgeSeconds", cacheProperties.maxServableAgeSeconds(TTL));
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
             Instant cachedAt = rs.getTimestamp("cached_at").toInstant();
-            if (cachedAt.plus(TTL).isBefore(Instant.now())) {
-                delete(seedType, seedKey);
-                return null;
-            }
-            return rs.getString(1);
-        }).stream().filter(value -> value != null).findFirst();
+            return new CachedResponse(rs.getString(1), cachedAt, cachedAt.plus(TTL).isBefore(Instant.now()));
+        }).stream().findFirst();
     }
 
     public void upsert(String seedType, String seedKey, String json) {
@@ -51,11 +58,10 @@ public class LastFmCacheRepository {
         jdbcTemplate.update(sql, params);
     }
 
-    private void delete(String seedType, String seedKey) {
-        String sql = """
-            DELETE FROM lastfm_similarity_cache
-            WHERE seed_type = :seedType AND seed_key = :seedKey
-            """;
-        jdbcTemplate.update(sql, Map.of("seedType", seedType, "seedKey", seedKey));
+    public int purgeExpired() {
+        String sql = "DELETE FROM lastfm_similarity_cache WHERE cached_at < NOW() - (:maxAgeSeconds * INTERVAL '1 second')";
+        return jdbcTemplate.update(sql, Map.of("maxAgeSeconds", cacheProperties.maxServableAgeSeconds(TTL)));
     }
+
+    public record CachedResponse(String json, Instant cachedAt, boolean stale) {}
 }
@@ -5,7 +5,6 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -20,11 +19,14 @@ import org.springframework.web.util.UriBuilder;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.music.api.support.AdaptiveRateLimiter;
 
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
-import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
 import io.github.resilience4j.retry.Retry;
+import reactor.core.publisher.Mono;
 
 @Component
 public class LastFmClient {
@@ -33,14 +35,14 @@ public class LastFmClient {
 
     private final WebClient lastFmWebClient;
     private final LastFmProperties properties;
-    private final RateLimiter lastFmRateLimiter;
+    private final AdaptiveRateLimiter lastFmRateLimiter;
     private final Retry metadataRetry;
     private final CircuitBreaker lastFmCircuitBreaker;
 
     public LastFmClient(
         @Qualifier("lastFmWebClient") WebClient lastFmWebClient,
         LastFmProperties properties,
-        @Qualifier("lastFmRateLimiter") RateLimiter lastFmRateLimiter,
+        @Qualifier("lastFmRateLimiter") AdaptiveRateLimiter lastFmRateLimiter,
         @Qualifier("metadataRetry") Retry metadataRetry,
         @Qualifier("lastFmCircuitBreaker") CircuitBreaker lastFmCircuitBreaker
     ) {
@@ -51,7 +53,7 @@ public class LastFmClient {
         this.lastFmCircuitBreaker = lastFmCircuitBreaker;
     }
 
-    public List<LastFmTrack> getSimilarTracks(String artist, String track, int limit) {
+    public Mono<List<LastFmTrack>> getSimilarTracksReactive(String artist, String track, int limit) {
         return execute("track.getSimilar", builder -> builder
             .queryParam("artist", artist)
             .queryParam("track", track)
@@ -61,10 +63,10 @@ public class LastFmClient {
             .map(SimilarTracks::tracks)
             .orElse(List.of()))
         .map(this::mapTrackResults)
-        .orElse(List.of());
+        .defaultIfEmpty(List.of());
     }
 
-    public List<LastFmArtist> getSimilarArtists(String artist, int limit) {
+    public Mono<List<LastFmArtist>> getSimilarArtistsReactive(String artist, int limit) {
         return execute("artist.getSimilar", builder -> builder
             .queryParam("artist", artist)
             .queryParam("limit", limit)
@@ -73,10 +75,10 @@ public class LastFmClient {
             .map(SimilarArtists::artists)
             .orElse(List.of()))
         .map(this::mapArtistResults)
-        .orElse(List.of());
+        .defaultIfEmpty(List.of());
     }
 
-    public List<LastFmTrack> getArtistTopTracks(String artist, int limit) {
+    public Mono<List<LastFmTrack>> getArtistTopTracksReactive(String artist, int limit) {
         return execute("artist.getTopTracks", builder -> builder
             .queryParam("artist", artist)
             .queryParam("limit", limit)
@@ -85,10 +87,10 @@ public class LastFmClient {
             .map(TopTracks::tracks)
             .orElse(List.of()))
         .map(this::mapTrackResults)
-        .orElse(List.of());
+        .defaultIfEmpty(List.of());
     }
 
-    public List<LastFmTrack> getGeoTopTracks(String country, int limit) {
+    public Mono<List<LastFmTrack>> getGeoTopTracksReactive(String country, int limit) {
         return execute("geo.getTopTracks", builder -> builder
             .queryParam("country", country)
             .queryParam("limit", limit)
@@ -97,16 +99,21 @@ public class LastFmClient {
             .map(TopTracks::tracks)
             .orElse(List.of()))
         .map(this::mapTrackResults)
-        .orElse(List.of());
+        .defaultIfEmpty(List.of());
     }
 
-    private <T> Optional<T> execute(String method, Function<UriBuilder, UriBuilder> customizer, Class<T> clazz) {
+    /**
+     * Issues one rate-limited, circuit-protected and retried call without blocking. Rate limiter
+     * waits delay the subscription instead of parking a thread. Failures are logged and complete
+     * the Mono empty.
+     */
+    private <T> Mono<T> execute(String method, Function<UriBuilder, UriBuilder> customizer, Class<T> clazz) {
         if (properties.getApiKey() == null || properties.getApiKey().isBlank()) {
             log.warn("Last.fm API key is not configured; skipping {} call", method);
-            return Optional.empty();
+            return Mono.empty();
         }
 
-        Supplier<T> supplier = () -> lastFmWebClient.get()
+        return lastFmWebClient.get()
             .uri(builder -> {
                 UriBuilder base = builder
                     .queryParam("method", method)
@@ -117,22 +124,19 @@ public class LastFmClient {
             .accept(MediaType.APPLICATION_JSON)
             .retrieve()
             .bodyToMono(clazz)
-            .block();
-        try {
-            Supplier<T> rateLimited = RateLimiter.decorateSupplier(lastFmRateLimiter, supplier);
-            Supplier<T> circuitProtected = CircuitBreaker.decorateSupplier(lastFmCircuitBreaker, rateLimited);
-            Supplier<T> retried = Retry.decorateSupplier(metadataRetry, circuitProtected);
-            return Optional.ofNullable(retried.get());
-        } catch (CallNotPermittedException ex) {
-            log.warn("Last.fm circuit breaker open, skipping {} request", method);
-            return Optional.empty();
-        } catch (WebClientResponseException ex) {
-            log.warn("Last.fm {} request failed: {} {}", method, ex.getStatusCode(), ex.getResponseBodyAsString());
-            return Optional.empty();
-        } catch (Exception ex) {
-            log.warn("Last.fm {} request failed: {}", method, ex.getMessage());
-            return Optional.empty();
-        }
+            .transformDeferred(lastFmRateLimiter.operator())
+            .transformDeferred(CircuitBreakerOperator.of(lastFmCircuitBreaker))
+            .transformDeferred(RetryOperator.of(metadataRetry))
+            .onErrorResume(ex -> {
+                if (ex instanceof CallNotPermittedException) {
+                    log.warn("Last.fm circuit breaker open, skipping {} request", method);
+                } else if (ex instanceof WebClientResponseException responseException) {
+                    log.warn("Last.fm {} request failed: {} {}", method, responseException.getStatusCode(), responseException.getResponseBodyAsString());
+                } else {
+                    log.warn("Last.fm {} request failed: {}", method, ex.getMessage());
+                }
+                return Mono.empty();
+            });
     }
 
     private List<LastFmTrack> mapTrackResults(List<TrackPayload> payloads) {
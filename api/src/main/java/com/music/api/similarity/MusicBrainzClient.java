@@ -14,11 +14,14 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.music.api.support.AdaptiveRateLimiter;
 
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
-import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
 import io.github.resilience4j.retry.Retry;
+import reactor.core.publisher.Mono;
 
 @Component
 public class MusicBrainzClient {
@@ -26,13 +29,13 @@ public class MusicBrainzClient {
     private static final Logger log = LoggerFactory.getLogger(MusicBrainzClient.class);
 
     private final WebClient musicBrainzWebClient;
-    private final RateLimiter musicBrainzRateLimiter;
+    private final AdaptiveRateLimiter musicBrainzRateLimiter;
     private final Retry metadataRetry;
     private final CircuitBreaker musicBrainzCircuitBreaker;
 
     public MusicBrainzClient(
         @Qualifier("musicBrainzWebClient") WebClient musicBrainzWebClient,
-        @Qualifier("musicBrainzRateLimiter") RateLimiter musicBrainzRateLimiter,
+        @Qualifier("musicBrainzRateLimiter") AdaptiveRateLimiter musicBrainzRateLimiter,
         @Qualifier("metadataRetry") Retry metadataRetry,
         @Qualifier("musicBrainzCircuitBreaker") CircuitBreaker musicBrainzCircuitBreaker
     ) {
@@ -42,12 +45,16 @@ public class MusicBrainzClient {
         this.musicBrainzCircuitBreaker = musicBrainzCircuitBreaker;
     }
 
-    public List<String> fetchArtistTags(String artistName) {
+    /**
+     * Tags of the best MusicBrainz match for an artist. Waiting for a rate limiter permit delays the
+     * subscription rather than holding a thread; failures complete with an empty list.
+     */
+    public Mono<List<String>> fetchArtistTagsReactive(String artistName) {
         if (artistName == null || artistName.isBlank()) {
-            return List.of();
+            return Mono.just(List.of());
         }
 
-        java.util.function.Supplier<ArtistSearchResponse> supplier = () -> musicBrainzWebClient.get()
+        return musicBrainzWebClient.get()
             .uri(uriBuilder -> uriBuilder
                 .path("/artist")
                 .queryParam("query", "artist:\"" + artistName + "\"")
@@ -58,39 +65,39 @@ public class MusicBrainzClient {
             .accept(MediaType.APPLICATION_JSON)
             .retrieve()
             .bodyToMono(ArtistSearchResponse.class)
-            .block();
-
-        try {
-            java.util.function.Supplier<ArtistSearchResponse> rateLimited = RateLimiter.decorateSupplier(musicBrainzRateLimiter, supplier);
-            java.util.function.Supplier<ArtistSearchResponse> circuitProtected = CircuitBreaker.decorateSupplier(musicBrainzCircuitBreaker, rateLimited);
-            java.util.function.Supplier<ArtistSearchResponse> retried = Retry.decorateSupplier(metadataRetry, circuitProtected);
-            ArtistSearchResponse response = retried.get();
-
-            if (response == null || response.artists() == null || response.artists().isEmpty()) {
-                return List.of();
-            }
-
-            Artist first = response.artists().get(0);
-            if (first.tags() == null) {
-                return List.of();
-            }
-
-            return first.tags().stream()
-                .sorted((a, b) -> Integer.compare(Optional.ofNullable(b.count()).orElse(0), Optional.ofNullable(a.count()).orElse(0)))
-                .map(Tag::name)
-                .filter(tag -> tag != null && !tag.isBlank())
-                .limit(20)
-                .collect(Collectors.toList());
-        } catch (CallNotPermittedException ex) {
-            log.warn("MusicBrainz circuit breaker open, skipping tag lookup for {}", artistName);
-            return Collections.emptyList();
-        } catch (WebClientResponseException ex) {
-            log.warn("MusicBrainz tag fetch failed for {}: {} {}", artistName, ex.getStatusCode(), ex.getResponseBodyAsString());
-            return Collections.emptyList();
-        } catch (Exception ex) {
-            log.warn("MusicBrainz tag fetch error for {}: {}", artistName, ex.getMessage());
-            return Collections.emptyList();
+            .transformDeferred(musicBrainzRateLimiter.operator())
+            .transformDeferred(CircuitBreakerOperator.of(musicBrainzCircuitBreaker))
+            .transformDeferred(RetryOperator.of(metadataRetry))
+            .map(this::extractTags)
+            .defaultIfEmpty(List.of())
+            .onErrorResume(ex -> {
+                if (ex instanceof CallNotPermittedException) {
+                    log.warn("MusicBrainz circuit breaker open, skipping tag lookup for {}", artistName);
+                } else if (ex instanceof WebClientResponseException responseException) {
+                    log.warn("MusicBrainz tag fetch failed for {}: {} {}", artistName, responseException.getStatusCode(), responseException.getResponseBodyAsString());
+                } else {
+                    log.warn("MusicBrainz tag fetch error for {}: {}", artistName, ex.getMessage());
+                }
+                return Mono.just(Collections.emptyList());
+            });
+    }
+
+    private List<String> extractTags(ArtistSearchResponse response) {
+        if (response.artists() == null || response.artists().isEmpty()) {
+            return List.of();
         }
+
+        Artist first = response.artists().get(0);
+        if (first.tags() == null) {
+            return List.of();
+        }
+
+        return first.tags().stream()
+            .sorted((a, b) -> Integer.compare(Optional.ofNullable(b.count()).orElse(0), Optional.ofNullable(a.count()).orElse(0)))
+            .map(Tag::name)
+            .filter(tag -> tag != null && !tag.isBlank())
+            .limit(20)
+            .collect(Collectors.toList());
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -0,0 +1,108 @@
+package com.music.api.similarity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ranking")
+public class RankingProperties {
+
+    /**
+     * Profile used when a request does not name one.
+     */
+    private String defaultProfile = "default";
+
+    /**
+     * Named weight profiles, e.g. {@code ranking.profiles.tag-heavy.tag-weight=0.35}. Each becomes a
+     * ranking strategy that requests can select by name. Read once at startup.
+     */
+    private Map<String, WeightProfile> profiles = new LinkedHashMap<>(Map.of("default", new WeightProfile()));
+
+    public String getDefaultProfile() {
+        return defaultProfile;
+    }
+
+    public void setDefaultProfile(String defaultProfile) {
+        this.defaultProfile = defaultProfile;
+    }
+
+    public Map<String, WeightProfile> getProfiles() {
+        return profiles;
+    }
+
+    public void setProfiles(Map<String, WeightProfile> profiles) {
+        this.profiles = profiles;
+    }
+
+    public static class WeightProfile {
+
+        /**
+         * Weight of the Last.fm similarity score.
+         */
+        private double baseWeight = 0.7;
+
+        /**
+         * Weight of the seed/candidate artist tag overlap.
+         */
+        private double tagWeight = 0.2;
+
+        /**
+         * Weight of the candidate's popularity z-score within the request.
+         */
+        private double popularityWeight = 0.1;
+
+        /**
+         * Bonus added to tracks the user up-voted. Down-voted tracks are never recommended.
+         */
+        private double feedbackWeight = 0.1;
+
+        /**
+         * Strength of the maximal marginal relevance re-ranking, from 0 (off, pure score order) to 1.
+         * Higher values push repeated artists and artists with overlapping tags further down.
+         */
+        private double diversityWeight = 0.0;
+
+        public double getBaseWeight() {
+            return baseWeight;
+        }
+
+        public void setBaseWeight(double baseWeight) {
+            this.baseWeight = baseWeight;
+        }
+
+        public double getTagWeight() {
+            return tagWeight;
+        }
+
+        public void setTagWeight(double tagWeight) {
+            this.tagWeight = tagWeight;
+        }
+
+        public double getPopularityWeight() {
+            return popularityWeight;
+        }
+
+        public void setPopularityWeight(double popularityWeight) {
+            this.popularityWeight = popularityWeight;
+        }
+
+        public double getFeedbackWeight() {
+            return feedbackWeight;
+        }
+
+        public void setFeedbackWeight(double feedbackWeight) {
+            this.feedbackWeight = feedbackWeight;
+        }
+
+        public double getDiversityWeight() {
+            return diversityWeight;
+        }
+
+        public void setDiversityWeight(double diversityWeight) {
+            this.diversityWeight = diversityWeight;
+        }
+    }
+}
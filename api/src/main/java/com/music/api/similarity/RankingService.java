@@ -2,140 +2,198 @@ package com.music.api.similarity;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
 
 import org.springframework.stereotype.Service;
 
-import com.music.api.auth.UserAuth;
+import com.music.api.feedback.UserFeedback;
+import com.music.api.similarity.ArtistTagService.TagLookup;
 import com.music.api.similarity.CandidateMappingService.MappedTrack;
-import com.music.api.similarity.TrackCacheRepository.TrackCacheEntry;
+
+import reactor.core.publisher.Mono;
 
 @Service
 public class RankingService {
 
-    private static final double BASE_WEIGHT = 0.7;
-    private static final double TAG_WEIGHT = 0.2;
-    private static final double POPULARITY_WEIGHT = 0.1;
+    private static final Comparator<RankedTrack> RANKING_ORDER = Comparator
+        .comparing(RankedTrack::score).reversed()
+        .thenComparing(RankedTrack::popularity, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(RankedTrack::name);
 
     private final ArtistTagService artistTagService;
-    private final TrackCacheService trackCacheService;
+    private final SimilarityProperties similarityProperties;
 
-    public RankingService(
-        ArtistTagService artistTagService,
-        TrackCacheService trackCacheService
-    ) {
+    public RankingService(ArtistTagService artistTagService, SimilarityProperties similarityProperties) {
         this.artistTagService = artistTagService;
-        this.trackCacheService = trackCacheService;
+        this.similarityProperties = similarityProperties;
     }
 
-    public List<RankedTrack> rank(UserAuth userAuth, String seedArtist, List<MappedTrack> candidates) {
-        Set<String> seedTags = artistTagService.getTags(seedArtist);
+    /**
+     * Returns the best {@code limit} candidates that have a Spotify id, ordered by score, then
+     * popularity, then name. Unmapped and down-voted candidates are dropped before scoring, and
+     * selection uses a bounded heap instead of sorting every candidate. When the strategy has a
+     * diversity weight, the top {@code limit} are instead chosen by maximal marginal relevance and
+     * returned in selection order. Waits for artist tag enrichment without holding a thread.
+     */
+    public Mono<List<RankedTrack>> rankTopReactive(
+        String seedArtist,
+        List<MappedTrack> candidates,
+        int limit,
+        RankingStrategy strategy,
+        UserFeedback feedback
+    ) {
+        if (limit <= 0) {
+            return Mono.just(List.of());
+        }
+        List<MappedTrack> mapped = eligibleForTop(candidates, feedback);
+        return artistTagService.getTagsReactive(artistsOf(seedArtist, mapped), similarityProperties.getTagEnrichmentBudget())
+            .map(tagLookup -> selectTop(score(seedArtist, mapped, strategy, feedback, tagLookup), limit, strategy));
+    }
 
-        List<CandidateContext> contexts = candidates.stream()
-            .map(candidate -> buildContext(userAuth, candidate, seedTags))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toCollection(ArrayList::new));
+    private List<MappedTrack> eligibleForTop(List<MappedTrack> candidates, UserFeedback feedback) {
+        return candidates.stream()
+            .filter(candidate -> candidate.spotifyId() != null)
+            .filter(candidate -> !feedback.isDownVoted(candidate.spotifyId()))
+            .toList();
+    }
+
+    private List<RankedTrack> selectTop(ScoredCandidates candidatesScored, int limit, RankingStrategy strategy) {
+        List<RankedTrack> scored = candidatesScored.tracks();
+
+        if (strategy.diversityWeight() > 0.0) {
+            return diversify(candidatesScored, limit, strategy.diversityWeight());
+        }
+
+        // Max-heap on "worse than", so the head is the weakest of the current top K. Input position is
+        // the final tie-break, which keeps the result identical to a stable sort.
+        Comparator<Integer> byRank = (a, b) -> {
+            int cmp = RANKING_ORDER.compare(scored.get(a), scored.get(b));
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        };
+        PriorityQueue<Integer> top = new PriorityQueue<>(Math.min(limit, scored.size()) + 1, byRank.reversed());
+        for (int i = 0; i < scored.size(); i++) {
+            top.offer(i);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Integer> selected = new ArrayList<>(top);
+        selected.sort(byRank);
+        List<RankedTrack> result = new ArrayList<>(selected.size());
+        selected.forEach(index -> result.add(scored.get(index)));
+        return result;
+    }
 
-        double meanPopularity = calculateMeanPopularity(contexts);
-        double stdPopularity = calculateStdPopularity(contexts, meanPopularity);
+    private List<RankedTrack> diversify(ScoredCandidates candidatesScored, int limit, double diversityWeight) {
+        List<RankedTrack> scored = candidatesScored.tracks();
+        int size = scored.size();
+        double[] relevance = new double[size];
+        int[] artistIds = new int[size];
+        Map<String, Integer> artistIndex = new HashMap<>();
+        List<Integer> order = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            RankedTrack track = scored.get(i);
+            relevance[i] = track.score();
+            String artistKey = track.artist() != null ? track.artist().trim().toLowerCase(Locale.ROOT) : "";
+            artistIds[i] = artistIndex.computeIfAbsent(artistKey, key -> artistIndex.size());
+            order.add(i);
+        }
+        order.sort((a, b) -> {
+            int cmp = RANKING_ORDER.compare(scored.get(a), scored.get(b));
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+
+        List<Integer> selected = DiversityReranker.select(
+            order,
+            relevance,
+            artistIds,
+            candidatesScored.artistTags(),
+            diversityWeight,
+            limit
+        );
+        List<RankedTrack> result = new ArrayList<>(selected.size());
+        selected.forEach(index -> result.add(scored.get(index)));
+        return result;
+    }
 
-        return contexts.stream()
-            .map(ctx -> toRankedTrack(ctx, meanPopularity, stdPopularity))
-            .sorted(Comparator
-                .comparing(RankedTrack::score).reversed()
-                .thenComparing(RankedTrack::popularity, Comparator.nullsLast(Comparator.reverseOrder()))
-                .thenComparing(RankedTrack::name))
-            .collect(Collectors.toList());
+    private List<String> artistsOf(String seedArtist, List<MappedTrack> candidates) {
+        List<String> artists = new ArrayList<>(candidates.size() + 1);
+        artists.add(seedArtist);
+        candidates.forEach(candidate -> artists.add(candidate.source().artist()));
+        return artists;
     }
 
-    private CandidateContext buildContext(UserAuth userAuth, MappedTrack candidate, Set<String> seedTags) {
-        double rawMatch = candidate.source().matchScore();
-        double baseSimilarity = rawMatch > 0 ? rawMatch : 0.4;
+    private ScoredCandidates score(
+        String seedArtist,
+        List<MappedTrack> candidates,
+        RankingStrategy strategy,
+        UserFeedback feedback,
+        TagLookup tagLookup
+    ) {
+        TagSet seedTags = tagsOf(tagLookup.tags(), seedArtist);
+        boolean seedTagsPending = tagLookup.pending().contains(seedArtist);
+
+        int size = candidates.size();
+        ScoringBatch batch = new ScoringBatch(size);
+        boolean[] tagsPending = new boolean[size];
+        TagSet[] artistTags = new TagSet[size];
+        for (int i = 0; i < size; i++) {
+            MappedTrack candidate = candidates.get(i);
+            String artist = candidate.source().artist();
+            double rawMatch = candidate.source().matchScore();
+            // Either side missing the enrichment deadline leaves the overlap at zero and flags the candidate
+            tagsPending[i] = seedTagsPending || tagLookup.pending().contains(artist);
+            artistTags[i] = tagsOf(tagLookup.tags(), artist);
+            batch.set(
+                i,
+                rawMatch > 0 ? rawMatch : 0.4,
+                seedTags.jaccard(artistTags[i]),
+                candidate.popularity(),
+                feedback.isUpVoted(candidate.spotifyId())
+            );
+        }
 
-        Set<String> candidateTags = artistTagService.getTags(candidate.source().artist());
-        double tagOverlap = artistTagService.jaccard(seedTags, candidateTags);
+        double[] scores = new double[size];
+        strategy.score(batch, scores);
 
-        Optional<TrackCacheEntry> cachedTrack = resolveTrackDetails(userAuth, candidate.spotifyId());
+        List<RankedTrack> scored = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            scored.add(toRankedTrack(candidates.get(i), scores[i], batch.tagOverlap()[i], tagsPending[i]));
+        }
+        return new ScoredCandidates(scored, artistTags);
+    }
 
-        Integer popularity = cachedTrack
-            .map(TrackCacheEntry::popularity)
-            .orElse(null);
+    private TagSet tagsOf(Map<String, TagSet> tagsByArtist, String artist) {
+        return artist != null ? tagsByArtist.getOrDefault(artist, TagSet.EMPTY) : TagSet.EMPTY;
+    }
 
+    private RankedTrack toRankedTrack(MappedTrack candidate, double score, double tagOverlap, boolean tagsPending) {
         String imageUrl = candidate.spotifyImageUrl();
-        if ((imageUrl == null || imageUrl.isBlank()) && cachedTrack.isPresent()) {
-            imageUrl = cachedTrack.get().imageUrl();
-        }
         if (imageUrl == null || imageUrl.isBlank()) {
             imageUrl = candidate.source().imageUrl();
         }
 
-        return new CandidateContext(
-            candidate,
-            baseSimilarity,
-            rawMatch,
+        return new RankedTrack(
+            candidate.source().name(),
+            candidate.source().artist(),
+            candidate.spotifyId(),
+            score,
+            candidate.source().matchScore(),
             tagOverlap,
+            tagsPending,
             candidate.confidence(),
-            popularity,
+            candidate.popularity(),
             candidate.cached(),
             candidate.source().url(),
             imageUrl
         );
     }
 
-    private Optional<TrackCacheEntry> resolveTrackDetails(UserAuth userAuth, String spotifyId) {
-        if (spotifyId == null) {
-            return Optional.empty();
-        }
-        return trackCacheService.getTrack(userAuth, spotifyId);
-    }
-
-    private RankedTrack toRankedTrack(CandidateContext context, double meanPopularity, double stdPopularity) {
-        double popularityZ = 0.0;
-        if (context.popularity() != null && stdPopularity > 0.0) {
-            popularityZ = (context.popularity() - meanPopularity) / stdPopularity;
-        }
-
-        double compositeScore = BASE_WEIGHT * context.baseSimilarity()
-            + TAG_WEIGHT * context.tagOverlap()
-            + POPULARITY_WEIGHT * popularityZ;
-
-        return new RankedTrack(
-            context.candidate().source().name(),
-            context.candidate().source().artist(),
-            context.candidate().spotifyId(),
-            compositeScore,
-            context.rawMatch(),
-            context.tagOverlap(),
-            context.confidence(),
-            context.popularity(),
-            context.cached(),
-            context.lastFmUrl(),
-            context.imageUrl()
-        );
-    }
-
-    private double calculateMeanPopularity(List<CandidateContext> contexts) {
-        return contexts.stream()
-            .map(CandidateContext::popularity)
-            .filter(Objects::nonNull)
-            .mapToDouble(Integer::doubleValue)
-            .average()
-            .orElse(0.0);
-    }
-
-    private double calculateStdPopularity(List<CandidateContext> contexts, double meanPopularity) {
-        double variance = contexts.stream()
-            .map(CandidateContext::popularity)
-            .filter(Objects::nonNull)
-            .mapToDouble(pop -> Math.pow(pop - meanPopularity, 2))
-            .average()
-            .orElse(0.0);
-        return Math.sqrt(variance);
-    }
+    private record ScoredCandidates(List<RankedTrack> tracks, TagSet[] artistTags) {}
 
     public record RankedTrack(
         String name,
@@ -144,18 +202,7 @@ public class RankingService {
         double score,
         double rawMatch,
         double tagOverlap,
-        double confidence,
-        Integer popularity,
-        boolean cached,
-        String lastFmUrl,
-        String imageUrl
-    ) {}
-
-    private record CandidateContext(
-        MappedTrack candidate,
-        double baseSimilarity,
-        double rawMatch,
-        double tagOverlap,
+        boolean tagsPending,
         double confidence,
         Integer popularity,
         boolean cached,
@@ -0,0 +1,97 @@
+package com.music.api.similarity;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.music.api.similarity.RankingProperties.WeightProfile;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Builds one strategy per configured weight profile at startup. Requests pick a strategy by name
+ * once, before scoring, so the scoring loop never looks anything up.
+ *
+ * <p>Profiles are not hot-swappable: the application has no configuration rebinding, so the
+ * strategies are fixed for the life of the context and changing a weight needs a restart.
+ */
+@Component
+public class RankingStrategies {
+
+    private final Map<String, RankingStrategy> strategies;
+    private final RankingStrategy defaultStrategy;
+
+    public RankingStrategies(RankingProperties rankingProperties, MeterRegistry meterRegistry) {
+        Map<String, RankingStrategy> built = new LinkedHashMap<>();
+        rankingProperties.getProfiles().forEach((name, profile) ->
+            built.put(name, timed(weightedSum(name, profile), meterRegistry)));
+        this.strategies = Collections.unmodifiableMap(built);
+        this.defaultStrategy = strategies.get(rankingProperties.getDefaultProfile());
+        if (defaultStrategy == null) {
+            throw new IllegalStateException("Default ranking profile '" + rankingProperties.getDefaultProfile()
+                + "' is not defined; known profiles: " + strategies.keySet());
+        }
+    }
+
+    public RankingStrategy defaultStrategy() {
+        return defaultStrategy;
+    }
+
+    /**
+     * Returns the named strategy, or the default when {@code name} is null or blank.
+     *
+     * @throws IllegalArgumentException when no profile has that name
+     */
+    public RankingStrategy resolve(String name) {
+        if (name == null || name.isBlank()) {
+            return defaultStrategy;
+        }
+        RankingStrategy strategy = strategies.get(name);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown ranking profile: " + name);
+        }
+        return strategy;
+    }
+
+    public Set<String> names() {
+        return strategies.keySet();
+    }
+
+    private static RankingStrategy weightedSum(String name, WeightProfile profile) {
+        return new WeightedSumRankingStrategy(
+            name,
+            profile.getBaseWeight(),
+            profile.getTagWeight(),
+            profile.getPopularityWeight(),
+            profile.getFeedbackWeight(),
+            profile.getDiversityWeight()
+        );
+    }
+
+    private static RankingStrategy timed(RankingStrategy delegate, MeterRegistry meterRegistry) {
+        Timer timer = Timer.builder("ranking.scoring")
+            .description("Time spent scoring one batch of candidates")
+            .tag("strategy", delegate.name())
+            .register(meterRegistry);
+        return new RankingStrategy() {
+            @Override
+            public String name() {
+                return delegate.name();
+            }
+
+            @Override
+            public void score(ScoringBatch batch, double[] scores) {
+                timer.record(() -> delegate.score(batch, scores));
+            }
+
+            @Override
+            public double diversityWeight() {
+                return delegate.diversityWeight();
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.music.api.similarity;
+
+/**
+ * Turns a {@link ScoringBatch} into composite scores. Implementations write one score per
+ * candidate into {@code scores}, which has at least {@code batch.size()} slots; higher ranks first.
+ */
+public interface RankingStrategy {
+
+    String name();
+
+    void score(ScoringBatch batch, double[] scores);
+
+    /**
+     * Weight in [0, 1] of the diversity penalty applied when selecting the final list. Zero keeps
+     * the list in pure score order.
+     */
+    default double diversityWeight() {
+        return 0.0;
+    }
+}
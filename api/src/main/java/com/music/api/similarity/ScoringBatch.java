@@ -0,0 +1,107 @@
+package com.music.api.similarity;
+
+/**
+ * Scoring inputs for a batch of candidates laid out as parallel primitive arrays, so a
+ * {@link RankingStrategy} can score the whole batch in one tight loop. Index {@code i} in every
+ * array describes the same candidate. Arrays are exposed directly and must be treated as read-only
+ * by strategies.
+ */
+public final class ScoringBatch {
+
+    private final int size;
+    private final double[] baseSimilarity;
+    private final double[] tagOverlap;
+    private final double[] popularity;
+    private final boolean[] hasPopularity;
+    private final double[] feedback;
+
+    private boolean statsComputed;
+    private double popularityMean;
+    private double popularityStd;
+
+    public ScoringBatch(int size) {
+        this.size = size;
+        this.baseSimilarity = new double[size];
+        this.tagOverlap = new double[size];
+        this.popularity = new double[size];
+        this.hasPopularity = new boolean[size];
+        this.feedback = new double[size];
+    }
+
+    /**
+     * @param upVoted whether the user up-voted the candidate; down-voted candidates never reach scoring
+     */
+    public void set(int index, double baseSimilarity, double tagOverlap, Integer popularity, boolean upVoted) {
+        this.baseSimilarity[index] = baseSimilarity;
+        this.tagOverlap[index] = tagOverlap;
+        this.hasPopularity[index] = popularity != null;
+        this.popularity[index] = popularity != null ? popularity : 0.0;
+        this.feedback[index] = upVoted ? 1.0 : 0.0;
+        this.statsComputed = false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double[] baseSimilarity() {
+        return baseSimilarity;
+    }
+
+    public double[] tagOverlap() {
+        return tagOverlap;
+    }
+
+    public double[] popularity() {
+        return popularity;
+    }
+
+    public boolean[] hasPopularity() {
+        return hasPopularity;
+    }
+
+    public double[] feedback() {
+        return feedback;
+    }
+
+    /**
+     * Mean of the known popularity values, or 0 when none are known.
+     */
+    public double popularityMean() {
+        computePopularityStats();
+        return popularityMean;
+    }
+
+    /**
+     * Population standard deviation of the known popularity values, or 0 when none are known.
+     */
+    public double popularityStd() {
+        computePopularityStats();
+        return popularityStd;
+    }
+
+    private void computePopularityStats() {
+        if (statsComputed) {
+            return;
+        }
+        int count = 0;
+        double sum = 0.0;
+        double sumOfSquares = 0.0;
+        for (int i = 0; i < size; i++) {
+            if (hasPopularity[i]) {
+                double value = popularity[i];
+                count++;
+                sum += value;
+                sumOfSquares += value * value;
+            }
+        }
+        if (count == 0) {
+            popularityMean = 0.0;
+            popularityStd = 0.0;
+        } else {
+            popularityMean = sum / count;
+            popularityStd = Math.sqrt(Math.max(0.0, sumOfSquares / count - popularityMean * popularityMean));
+        }
+        statsComputed = true;
+    }
+}
@@ -0,0 +1,3 @@
+package com.music.api.similarity;
+
+record SeedKey(String seedType, String seedKey) {}
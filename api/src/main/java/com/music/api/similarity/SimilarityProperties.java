@@ -0,0 +1,135 @@
+package com.music.api.similarity;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "similarity")
+public class SimilarityProperties {
+
+    /**
+     * Maximum number of concurrent artist.getTopTracks calls issued per request
+     * when gathering tracks from similar artists. A value of 1 keeps the calls sequential.
+     */
+    private int fanOutParallelism = 4;
+
+    /**
+     * Start the Last.fm fallback strategies concurrently instead of strictly one after another.
+     */
+    private boolean speculative = false;
+
+    /**
+     * Delay between speculative strategy launches. Zero starts every strategy at once.
+     */
+    private Duration hedgeDelay = Duration.ZERO;
+
+    /**
+     * Upper bound on the number of seeds held in the in-memory similarity cache.
+     */
+    private long l1CacheMaxEntries = 5_000;
+
+    /**
+     * Upper bound on the total number of tracks held in the in-memory similarity cache.
+     * Zero disables the cache.
+     */
+    private long l1CacheMaxWeight = 250_000;
+
+    /**
+     * Maximum number of concurrent Spotify searches issued per request when mapping
+     * candidates that have no cached id. A value of 1 keeps the searches sequential.
+     */
+    private int mappingParallelism = 4;
+
+    /**
+     * Maximum number of concurrent MusicBrainz tag lookups across the whole application. One call
+     * at a time already keeps pace with MusicBrainz's one call per second; more only helps when its
+     * latency exceeds the rate interval, and each extra call waits longer for a permit.
+     */
+    private int tagFetchParallelism = 1;
+
+    /**
+     * Maximum number of artists queued or being looked up on MusicBrainz. Lookups beyond that are
+     * rejected, counted as overflowed, and left for a later request.
+     */
+    private int tagFetchQueueCapacity = 1_000;
+
+    /**
+     * How long ranking waits for MusicBrainz tag lookups. Artists still unresolved at the deadline
+     * score with no tag overlap while their lookups finish in the background. Zero waits for every lookup.
+     */
+    private Duration tagEnrichmentBudget = Duration.ofSeconds(2);
+
+    public int getFanOutParallelism() {
+        return fanOutParallelism;
+    }
+
+    public void setFanOutParallelism(int fanOutParallelism) {
+        this.fanOutParallelism = fanOutParallelism;
+    }
+
+    public boolean isSpeculative() {
+        return speculative;
+    }
+
+    public void setSpeculative(boolean speculative) {
+        this.speculative = speculative;
+    }
+
+    public Duration getHedgeDelay() {
+        return hedgeDelay;
+    }
+
+    public void setHedgeDelay(Duration hedgeDelay) {
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    public long getL1CacheMaxEntries() {
+        return l1CacheMaxEntries;
+    }
+
+    public void setL1CacheMaxEntries(long l1CacheMaxEntries) {
+        this.l1CacheMaxEntries = l1CacheMaxEntries;
+    }
+
+    public long getL1CacheMaxWeight() {
+        return l1CacheMaxWeight;
+    }
+
+    public void setL1CacheMaxWeight(long l1CacheMaxWeight) {
+        this.l1CacheMaxWeight = l1CacheMaxWeight;
+    }
+
+    public int getMappingParallelism() {
+        return mappingParallelism;
+    }
+
+    public void setMappingParallelism(int mappingParallelism) {
+        this.mappingParallelism = mappingParallelism;
+    }
+
+    public int getTagFetchParallelism() {
+        return tagFetchParallelism;
+    }
+
+    public void setTagFetchParallelism(int tagFetchParallelism) {
+        this.tagFetchParallelism = tagFetchParallelism;
+    }
+
+    public int getTagFetchQueueCapacity() {
+        return tagFetchQueueCapacity;
+    }
+
+    public void setTagFetchQueueCapacity(int tagFetchQueueCapacity) {
+        this.tagFetchQueueCapacity = tagFetchQueueCapacity;
+    }
+
+    public Duration getTagEnrichmentBudget() {
+        return tagEnrichmentBudget;
+    }
+
+    public void setTagEnrichmentBudget(Duration tagEnrichmentBudget) {
+        this.tagEnrichmentBudget = tagEnrichmentBudget;
+    }
+}
@@ -0,0 +1,78 @@
+package com.music.api.similarity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.music.api.similarity.SimilarityService.SimilarityResult;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * In-process cache of deserialized similarity results sitting in front of lastfm_similarity_cache.
+ * Entries expire at the same instant as the backing row, so the L1 never serves anything the
+ * database would consider expired.
+ */
+@Component
+public class SimilarityResultCache {
+
+    private final Cache<SeedKey, CachedResult> cache;
+
+    public SimilarityResultCache(SimilarityProperties properties, MeterRegistry meterRegistry) {
+        long maxWeight = Math.max(0, properties.getL1CacheMaxWeight());
+        long maxEntries = Math.max(1, properties.getL1CacheMaxEntries());
+        // Every entry weighs at least maxWeight / maxEntries, which caps the entry count as well as
+        // the total number of cached tracks.
+        int minimumEntryWeight = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (maxWeight + maxEntries - 1) / maxEntries));
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxWeight)
+            .weigher((SeedKey key, CachedResult value) -> Math.max(minimumEntryWeight, 1 + value.result().tracks().size()))
+            .expireAfter(new ExpireWithBackingRow())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "similarity.l1");
+    }
+
+    public Optional<SimilarityResult> get(String seedType, String seedKey) {
+        return Optional.ofNullable(cache.getIfPresent(new SeedKey(seedType, seedKey)))
+            .map(CachedResult::result);
+    }
+
+    public void put(String seedType, String seedKey, SimilarityResult result, Instant cachedAt) {
+        if (result == null || result.tracks() == null) {
+            return;
+        }
+        cache.put(new SeedKey(seedType, seedKey), new CachedResult(result, cachedAt));
+    }
+
+    private record CachedResult(SimilarityResult result, Instant cachedAt) {}
+
+    private static final class ExpireWithBackingRow implements Expiry<SeedKey, CachedResult> {
+
+        @Override
+        public long expireAfterCreate(SeedKey key, CachedResult value, long currentTime) {
+            return remainingNanos(value);
+        }
+
+        @Override
+        public long expireAfterUpdate(SeedKey key, CachedResult value, long currentTime, long currentDuration) {
+            return remainingNanos(value);
+        }
+
+        @Override
+        public long expireAfterRead(SeedKey key, CachedResult value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long remainingNanos(CachedResult value) {
+            Duration remaining = Duration.between(Instant.now(), value.cachedAt().plus(LastFmCacheRepository.TTL));
+            return remaining.isNegative() ? 0 : remaining.toNanos();
+        }
+    }
+}
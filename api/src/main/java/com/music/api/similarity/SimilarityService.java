@@ -1,10 +1,13 @@
 package com.music.api.similarity;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,8 +16,14 @@ import org.springframework.stereotype.Service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.music.api.similarity.LastFmClient.LastFmArtist;
 import com.music.api.similarity.LastFmClient.LastFmTrack;
+import com.music.api.support.SingleFlight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 public class SimilarityService {
@@ -28,69 +37,158 @@ public class SimilarityService {
 
     private final LastFmClient lastFmClient;
     private final LastFmCacheRepository cacheRepository;
+    private final SimilarityResultCache resultCache;
+    private final CacheRefresher cacheRefresher;
     private final ObjectMapper objectMapper;
     private final LastFmProperties properties;
+    private final SimilarityProperties similarityProperties;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlight<SeedKey, SimilarityResult> inFlightLookups;
 
     public SimilarityService(
         LastFmClient lastFmClient,
         LastFmCacheRepository cacheRepository,
+        SimilarityResultCache resultCache,
+        CacheRefresher cacheRefresher,
         ObjectMapper objectMapper,
-        LastFmProperties properties
+        LastFmProperties properties,
+        SimilarityProperties similarityProperties,
+        MeterRegistry meterRegistry
     ) {
         this.lastFmClient = lastFmClient;
         this.cacheRepository = cacheRepository;
+        this.resultCache = resultCache;
+        this.cacheRefresher = cacheRefresher;
         this.objectMapper = objectMapper;
         this.properties = properties;
+        this.similarityProperties = similarityProperties;
+        this.meterRegistry = meterRegistry;
+        this.inFlightLookups = new SingleFlight<>("similarity", meterRegistry);
     }
 
-    public SimilarityResult getSimilarTracks(String seedArtist, String seedTrack) {
+    /**
+     * Resolves similar tracks for a seed through the similarity caches and the Last.fm fallback
+     * chain. Last.fm calls never hold a thread and the cache reads and writes run on the bounded
+     * elastic scheduler.
+     */
+    public Mono<SimilarityResult> getSimilarTracksReactive(String seedArtist, String seedTrack) {
         String normalizedKey = SimilarityKeys.normalize(seedArtist, seedTrack);
-        Optional<SimilarityResult> cached = loadFromCache("track", normalizedKey);
-        if (cached.isPresent()) {
-            return cached.get();
-        }
+        SeedKey seedKey = new SeedKey("track", normalizedKey);
+        Runnable revalidate = () -> cacheRefresher.refreshAsync("lastfm_similarity_cache", "track:" + normalizedKey,
+            () -> inFlightLookups.executeReactive(seedKey, () -> resolve(seedArtist, seedTrack, normalizedKey)).block());
 
-        // Primary strategy: track.getSimilar
-        List<LastFmTrack> similarTracks = lastFmClient.getSimilarTracks(seedArtist, seedTrack, TRACK_LIMIT);
-        if (!similarTracks.isEmpty()) {
-            return cacheAndReturn("track", normalizedKey, new SimilarityResult("track.getSimilar", normalizeDistinct(similarTracks)));
-        }
+        // Concurrent misses for the same seed share one upstream resolution
+        return loadFromCache("track", normalizedKey, revalidate)
+            .switchIfEmpty(Mono.defer(() -> inFlightLookups.executeReactive(seedKey, () -> loadFromCache("track", normalizedKey, revalidate)
+                .switchIfEmpty(Mono.defer(() -> resolve(seedArtist, seedTrack, normalizedKey))))));
+    }
 
-        // Fallback 1: similar artists and their top tracks
-        List<LastFmTrack> fromSimilarArtists = gatherFromSimilarArtists(seedArtist);
-        if (!fromSimilarArtists.isEmpty()) {
-            return cacheAndReturn("track", normalizedKey, new SimilarityResult("artist.getSimilar", fromSimilarArtists));
-        }
+    private Mono<SimilarityResult> resolve(String seedArtist, String seedTrack, String normalizedKey) {
+        List<FallbackStrategy> chain = fallbackChain(seedArtist, seedTrack);
+        boolean speculative = similarityProperties.isSpeculative();
+        return (speculative ? resolveSpeculatively(chain) : resolveSequentially(chain))
+            .doOnNext(result -> {
+                meterRegistry.counter("similarity.strategy.selected",
+                    "strategy", result.strategy(),
+                    "mode", speculative ? "speculative" : "sequential"
+                ).increment();
+                log.debug("Resolved similarity for {} using {} ({} tracks)", normalizedKey, result.strategy(), result.tracks().size());
+            })
+            .flatMap(result -> cacheAndReturn("track", normalizedKey, result));
+    }
 
-        // Fallback 2: artist top tracks
-        List<LastFmTrack> artistTopTracks = normalizeDistinct(lastFmClient.getArtistTopTracks(seedArtist, TRACK_LIMIT));
-        if (!artistTopTracks.isEmpty()) {
-            return cacheAndReturn("track", normalizedKey, new SimilarityResult("artist.getTopTracks", artistTopTracks));
-        }
+    /**
+     * Fallback strategies in priority order; the first one that yields tracks wins.
+     */
+    private List<FallbackStrategy> fallbackChain(String seedArtist, String seedTrack) {
+        return List.of(
+            // Primary strategy: track.getSimilar
+            new FallbackStrategy("track.getSimilar", () -> lastFmClient.getSimilarTracksReactive(seedArtist, seedTrack, TRACK_LIMIT)
+                .map(this::normalizeDistinct)),
+            // Fallback 1: similar artists and their top tracks
+            new FallbackStrategy("artist.getSimilar", () -> gatherFromSimilarArtists(seedArtist)),
+            // Fallback 2: artist top tracks
+            new FallbackStrategy("artist.getTopTracks", () -> lastFmClient.getArtistTopTracksReactive(seedArtist, TRACK_LIMIT)
+                .map(this::normalizeDistinct)),
+            // Fallback 3: geo top tracks
+            new FallbackStrategy("geo.getTopTracks", () -> lastFmClient.getGeoTopTracksReactive(properties.getDefaultCountry(), TRACK_LIMIT)
+                .map(this::normalizeDistinct))
+        );
+    }
 
-        // Fallback 3: geo top tracks
-        List<LastFmTrack> geoTracks = normalizeDistinct(lastFmClient.getGeoTopTracks(properties.getDefaultCountry(), TRACK_LIMIT));
-        return cacheAndReturn("track", normalizedKey, new SimilarityResult("geo.getTopTracks", geoTracks));
+    private Mono<SimilarityResult> resolveSequentially(List<FallbackStrategy> chain) {
+        return Flux.fromIterable(chain)
+            .concatMap(strategy -> strategy.fetcher().get()
+                .map(tracks -> new SimilarityResult(strategy.name(), tracks)))
+            .filter(result -> !result.tracks().isEmpty())
+            .next()
+            .defaultIfEmpty(new SimilarityResult(chain.get(chain.size() - 1).name(), List.of()));
     }
 
-    private List<LastFmTrack> gatherFromSimilarArtists(String seedArtist) {
-        List<LastFmArtist> similarArtists = lastFmClient.getSimilarArtists(seedArtist, ARTIST_LIMIT);
-        if (similarArtists.isEmpty()) {
-            return List.of();
+    /**
+     * Starts every strategy without waiting for the previous one to come back empty.
+     * Strategy {@code i} is launched after {@code i * hedgeDelay}, or as soon as the strategy
+     * before it has come back empty. Results are consumed in priority order, so a lower-priority
+     * strategy only wins once every higher-priority one has yielded nothing; the remaining
+     * attempts are cancelled as soon as a winner is found.
+     */
+    private Mono<SimilarityResult> resolveSpeculatively(List<FallbackStrategy> chain) {
+        Duration hedgeDelay = similarityProperties.getHedgeDelay();
+        List<Mono<SimilarityResult>> attempts = new ArrayList<>(chain.size());
+        Mono<Void> previousExhausted = Mono.empty();
+        for (int i = 0; i < chain.size(); i++) {
+            FallbackStrategy strategy = chain.get(i);
+            Mono<Void> trigger = i == 0 || hedgeDelay == null || hedgeDelay.isZero() || hedgeDelay.isNegative()
+                ? Mono.empty()
+                : Mono.firstWithSignal(Mono.delay(hedgeDelay.multipliedBy(i)).then(), previousExhausted);
+            Sinks.Empty<Void> exhausted = Sinks.empty();
+            attempts.add(trigger
+                .then(Mono.defer(() -> strategy.fetcher().get())
+                    .map(tracks -> new SimilarityResult(strategy.name(), tracks)))
+                .onErrorResume(ex -> {
+                    log.debug("Speculative {} attempt failed: {}", strategy.name(), ex.getMessage());
+                    return Mono.just(new SimilarityResult(strategy.name(), List.of()));
+                })
+                .doOnNext(result -> {
+                    if (result.tracks().isEmpty()) {
+                        exhausted.tryEmitEmpty();
+                    }
+                }));
+            previousExhausted = exhausted.asMono();
         }
 
-        List<LastFmTrack> collected = new ArrayList<>();
-        Set<String> seen = new LinkedHashSet<>();
-        for (LastFmArtist artist : similarArtists) {
-            List<LastFmTrack> topTracks = lastFmClient.getArtistTopTracks(artist.name(), TOP_TRACKS_PER_ARTIST);
-            for (LastFmTrack track : topTracks) {
-                String key = SimilarityKeys.normalize(track.artist(), track.name());
-                if (seen.add(key)) {
-                    collected.add(track);
-                }
+        return Flux.mergeSequential(attempts)
+            .filter(result -> !result.tracks().isEmpty())
+            .next()
+            .defaultIfEmpty(new SimilarityResult(chain.get(chain.size() - 1).name(), List.of()));
+    }
+
+    private Mono<List<LastFmTrack>> gatherFromSimilarArtists(String seedArtist) {
+        return lastFmClient.getSimilarArtistsReactive(seedArtist, ARTIST_LIMIT).flatMap(similarArtists -> {
+            if (similarArtists.isEmpty()) {
+                return Mono.just(List.<LastFmTrack>of());
             }
-        }
-        return collected;
+
+            // Fan out the per-artist lookups; flatMapSequential keeps the similar-artist order
+            // and the shared rate limiter still caps the overall request rate.
+            int parallelism = Math.max(1, similarityProperties.getFanOutParallelism());
+            return Flux.fromIterable(similarArtists)
+                .flatMapSequential(artist -> lastFmClient.getArtistTopTracksReactive(artist.name(), TOP_TRACKS_PER_ARTIST), parallelism)
+                .collectList()
+                .map(topTracksPerArtist -> {
+                    List<LastFmTrack> collected = new ArrayList<>();
+                    Set<String> seen = new LinkedHashSet<>();
+                    for (List<LastFmTrack> topTracks : topTracksPerArtist) {
+                        for (LastFmTrack track : topTracks) {
+                            String key = SimilarityKeys.normalize(track.artist(), track.name());
+                            if (seen.add(key)) {
+                                collected.add(track);
+                            }
+                        }
+                    }
+                    return collected;
+                });
+        });
     }
 
     private List<LastFmTrack> normalizeDistinct(List<LastFmTrack> tracks) {
@@ -108,20 +206,40 @@ public class SimilarityService {
         return cleaned;
     }
 
-    private SimilarityResult cacheAndReturn(String seedType, String seedKey, SimilarityResult result) {
-        try {
-            cacheRepository.upsert(seedType, seedKey, objectMapper.writeValueAsString(result));
-        } catch (JsonProcessingException ex) {
-            log.warn("Failed to cache similarity result for {}:{} - {}", seedType, seedKey, ex.getMessage());
+    private Mono<SimilarityResult> cacheAndReturn(String seedType, String seedKey, SimilarityResult result) {
+        resultCache.put(seedType, seedKey, result, Instant.now());
+        return Mono.fromRunnable(() -> {
+                try {
+                    cacheRepository.upsert(seedType, seedKey, objectMapper.writeValueAsString(result));
+                } catch (JsonProcessingException ex) {
+                    log.warn("Failed to cache similarity result for {}:{} - {}", seedType, seedKey, ex.getMessage());
+                }
+            })
+            .subscribeOn(Schedulers.boundedElastic())
+            .thenReturn(result);
+    }
+
+    private Mono<SimilarityResult> loadFromCache(String seedType, String seedKey, Runnable revalidate) {
+        Optional<SimilarityResult> inMemory = resultCache.get(seedType, seedKey);
+        if (inMemory.isPresent()) {
+            return Mono.just(inMemory.get());
         }
-        return result;
+        return Mono.fromCallable(() -> loadFromDatabase(seedType, seedKey, revalidate).orElse(null))
+            .subscribeOn(Schedulers.boundedElastic());
     }
 
-    private Optional<SimilarityResult> loadFromCache(String seedType, String seedKey) {
+    private Optional<SimilarityResult> loadFromDatabase(String seedType, String seedKey, Runnable revalidate) {
         return cacheRepository.findFreshResponse(seedType, seedKey)
-            .flatMap(json -> {
+            .flatMap(cached -> {
                 try {
-                    return Optional.ofNullable(objectMapper.readValue(json, RESULT_TYPE));
+                    SimilarityResult result = objectMapper.readValue(cached.json(), RESULT_TYPE);
+                    if (cached.stale()) {
+                        // Serve the stale row now and refresh it off the request path
+                        revalidate.run();
+                    } else {
+                        resultCache.put(seedType, seedKey, result, cached.cachedAt());
+                    }
+                    return Optional.ofNullable(result);
                 } catch (JsonProcessingException ex) {
                     log.warn("Failed to deserialize cached similarity result for {}:{} - {}", seedType, seedKey, ex.getMessage());
                     return Optional.empty();
@@ -129,6 +247,8 @@ public class SimilarityService {
             });
     }
 
+    private record FallbackStrategy(String name, Supplier<Mono<List<LastFmTrack>>> fetcher) {}
+
     public record SimilarityResult(
         String strategy,
         List<LastFmTrack> tracks
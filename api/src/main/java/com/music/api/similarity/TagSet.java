@@ -0,0 +1,74 @@
+package com.music.api.similarity;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of interned tag ids, stored as a sorted array without duplicates.
+ * Instances come from {@link TagVocabulary#encode}, so ids are comparable across artists.
+ */
+public final class TagSet {
+
+    public static final TagSet EMPTY = new TagSet(new int[0]);
+
+    private final int[] ids;
+
+    private TagSet(int[] ids) {
+        this.ids = ids;
+    }
+
+    static TagSet ofSortedDistinct(int[] ids) {
+        return ids.length == 0 ? EMPTY : new TagSet(ids);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    /**
+     * Jaccard similarity of the two sets, computed with a single merge pass and no allocation.
+     */
+    public double jaccard(TagSet other) {
+        int[] a = ids;
+        int[] b = other.ids;
+        if (a.length == 0 || b.length == 0) {
+            return 0.0;
+        }
+        int i = 0;
+        int j = 0;
+        int intersection = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                intersection++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        if (intersection == 0) {
+            return 0.0;
+        }
+        return (double) intersection / (a.length + b.length - intersection);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof TagSet other && Arrays.equals(ids, other.ids);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ids);
+    }
+
+    @Override
+    public String toString() {
+        return "TagSet" + Arrays.toString(ids);
+    }
+}
@@ -0,0 +1,69 @@
+package com.music.api.similarity;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Process-wide dictionary from tag strings to dense integer ids. A normalized tag keeps its id for
+ * the life of the process, because cached {@link TagSet}s refer to ids, so that map grows with the
+ * number of distinct tags seen. The memo from raw spellings to ids only saves re-normalizing
+ * frequent spellings and is capped at {@value #MAX_RAW_SPELLINGS} entries.
+ */
+@Component
+public class TagVocabulary {
+
+    private static final int BLANK = -1;
+    private static final int MAX_RAW_SPELLINGS = 50_000;
+
+    private final ConcurrentMap<String, Integer> idsByTag = new ConcurrentHashMap<>();
+    private final Cache<String, Integer> idsByRawTag = Caffeine.newBuilder()
+        .maximumSize(MAX_RAW_SPELLINGS)
+        .build();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    public TagSet encode(Collection<String> rawTags) {
+        if (rawTags.isEmpty()) {
+            return TagSet.EMPTY;
+        }
+        int[] ids = new int[rawTags.size()];
+        int count = 0;
+        for (String rawTag : rawTags) {
+            if (rawTag == null) {
+                continue;
+            }
+            int id = idsByRawTag.get(rawTag, this::intern);
+            if (id != BLANK) {
+                ids[count++] = id;
+            }
+        }
+        Arrays.sort(ids, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return TagSet.ofSortedDistinct(distinct == ids.length ? ids : Arrays.copyOf(ids, distinct));
+    }
+
+    public int size() {
+        return idsByTag.size();
+    }
+
+    private int intern(String rawTag) {
+        String normalized = rawTag.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            return BLANK;
+        }
+        return idsByTag.computeIfAbsent(normalized, tag -> nextId.getAndIncrement());
+    }
+}
@@ -1,7 +1,11 @@
 package com.music.api.similarity;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -13,11 +17,19 @@ import org.springframework.stereotype.Repository;
 public class TrackCacheRepository {
 
     private static final Duration TTL = Duration.ofDays(7);
+    private static final String UPSERT_SQL = """
+        INSERT INTO track_cache (spotify_id, name, artist, album, popularity, image_url, isrc, cached_at)
+        VALUES (:spotifyId, :name, :artist, :album, :popularity, :imageUrl, :isrc, NOW())
+        ON CONFLICT (spotify_id)
+        DO UPDATE SET name = :name, artist = :artist, album = :album, popularity = :popularity, image_url = :imageUrl, isrc = :isrc, cached_at = NOW()
+        """;
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final CacheProperties cacheProperties;
 
-    public TrackCacheRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    public TrackCacheRepository(NamedParameterJdbcTemplate jdbcTemplate, CacheProperties cacheProperties) {
         this.jdbcTemplate = jdbcTemplate;
+        this.cacheProperties = cacheProperties;
     }
 
     public Optional<TrackCacheEntry> findFresh(String spotifyId) {
@@ -25,34 +37,68 @@ public class TrackCacheRepository {
             SELECT spotify_id, name, artist, album, popularity, image_url, isrc, cached_at
             FROM track_cache
             WHERE spotify_id = :spotifyId
+              AND cached_at > NOW() - (:maxAgeSeconds * INTERVAL '1 second')
             """;
-        return jdbcTemplate.query(sql, Map.of("spotifyId", spotifyId), (rs, rowNum) -> {
-            Instant cachedAt = rs.getTimestamp("cached_at").toInstant();
-            if (cachedAt.plus(TTL).isBefore(Instant.now())) {
-                delete(spotifyId);
-                return null;
-            }
-            return new TrackCacheEntry(
-                rs.getString("spotify_id"),
-                rs.getString("name"),
-                rs.getString("artist"),
-                rs.getString("album"),
-                rs.getInt("popularity"),
-                rs.getString("image_url"),
-                rs.getString("isrc"),
-                cachedAt
-            );
-        }).stream().filter(entry -> entry != null).findFirst();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("spotifyId", spotifyId)
+            .addValue("maxAgeSeconds", cacheProperties.maxServableAgeSeconds(TTL));
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> mapEntry(rs)).stream().findFirst();
     }
 
-    public void upsert(TrackCacheEntry entry) {
+    public Map<String, TrackCacheEntry> findFresh(Collection<String> spotifyIds) {
+        if (spotifyIds.isEmpty()) {
+            return Map.of();
+        }
         String sql = """
-            INSERT INTO track_cache (spotify_id, name, artist, album, popularity, image_url, isrc, cached_at)
-            VALUES (:spotifyId, :name, :artist, :album, :popularity, :imageUrl, :isrc, NOW())
-            ON CONFLICT (spotify_id)
-            DO UPDATE SET name = :name, artist = :artist, album = :album, popularity = :popularity, image_url = :imageUrl, isrc = :isrc, cached_at = NOW()
+            SELECT spotify_id, name, artist, album, popularity, image_url, isrc, cached_at
+            FROM track_cache
+            WHERE spotify_id = ANY(:spotifyIds)
+              AND cached_at > NOW() - (:maxAgeSeconds * INTERVAL '1 second')
             """;
         MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("spotifyIds", spotifyIds.stream().distinct().toArray(String[]::new))
+            .addValue("maxAgeSeconds", cacheProperties.maxServableAgeSeconds(TTL));
+        Map<String, TrackCacheEntry> entries = new HashMap<>();
+        jdbcTemplate.query(sql, params, (rs, rowNum) -> mapEntry(rs))
+            .forEach(entry -> entries.put(entry.spotifyId(), entry));
+        return entries;
+    }
+
+    /**
+     * Whether the entry is past its TTL and only being served from the stale grace window.
+     */
+    public boolean isStale(TrackCacheEntry entry) {
+        return entry.cachedAt() != null && entry.cachedAt().plus(TTL).isBefore(Instant.now());
+    }
+
+    public void upsert(TrackCacheEntry entry) {
+        jdbcTemplate.update(UPSERT_SQL, upsertParams(entry));
+    }
+
+    public void upsertAll(Collection<TrackCacheEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, entries.stream()
+            .map(TrackCacheRepository::upsertParams)
+            .toArray(MapSqlParameterSource[]::new));
+    }
+
+    private static TrackCacheEntry mapEntry(ResultSet rs) throws SQLException {
+        return new TrackCacheEntry(
+            rs.getString("spotify_id"),
+            rs.getString("name"),
+            rs.getString("artist"),
+            rs.getString("album"),
+            rs.getInt("popularity"),
+            rs.getString("image_url"),
+            rs.getString("isrc"),
+            rs.getTimestamp("cached_at").toInstant()
+        );
+    }
+
+    private static MapSqlParameterSource upsertParams(TrackCacheEntry entry) {
+        return new MapSqlParameterSource()
             .addValue("spotifyId", entry.spotifyId())
             .addValue("name", entry.name())
             .addValue("artist", entry.artist())
@@ -60,16 +106,11 @@ public class TrackCacheRepository {
             .addValue("popularity", entry.popularity())
             .addValue("imageUrl", entry.imageUrl())
             .addValue("isrc", entry.isrc());
-        jdbcTemplate.update(sql, params);
-    }
-
-    private void delete(String spotifyId) {
-        jdbcTemplate.update("DELETE FROM track_cache WHERE spotify_id = :spotifyId", Map.of("spotifyId", spotifyId));
     }
 
     public int purgeExpired() {
-        String sql = "DELETE FROM track_cache WHERE cached_at < NOW() - INTERVAL '7 days'";
-        return jdbcTemplate.update(sql, new MapSqlParameterSource());
+        String sql = "DELETE FROM track_cache WHERE cached_at < NOW() - (:maxAgeSeconds * INTERVAL '1 second')";
+        return jdbcTemplate.update(sql, Map.of("maxAgeSeconds", cacheProperties.maxServableAgeSeconds(TTL)));
     }
 
     public record TrackCacheEntry(
@@ -1,6 +1,15 @@
 package com.music.api.similarity;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.time.Instant;
 
 import org.slf4j.Logger;
@@ -14,80 +23,147 @@ import com.music.api.similarity.TrackCacheRepository.TrackCacheEntry;
 import com.music.api.spotify.SpotifyApiClient;
 import com.music.api.spotify.SpotifyApiClient.SeedTrack;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 @Service
 public class TrackCacheService {
 
     private static final Logger log = LoggerFactory.getLogger(TrackCacheService.class);
 
+    // Spotify's several-tracks endpoint accepts at most 50 ids per call
+    private static final int SPOTIFY_TRACK_CHUNK = 50;
+
     private final TrackCacheRepository repository;
     private final SpotifyApiClient spotifyApiClient;
     private final SpotifyAuthService spotifyAuthService;
+    private final CacheRefresher cacheRefresher;
 
     public TrackCacheService(
         TrackCacheRepository repository,
         SpotifyApiClient spotifyApiClient,
-        SpotifyAuthService spotifyAuthService
+        SpotifyAuthService spotifyAuthService,
+        CacheRefresher cacheRefresher
     ) {
         this.repository = repository;
         this.spotifyApiClient = spotifyApiClient;
         this.spotifyAuthService = spotifyAuthService;
+        this.cacheRefresher = cacheRefresher;
     }
 
-    public Optional<TrackCacheEntry> getTrack(UserAuth userAuth, String spotifyId) {
-        if (spotifyId == null || spotifyId.isBlank()) {
-            return Optional.empty();
-        }
-        Optional<TrackCacheEntry> cached = repository.findFresh(spotifyId);
-        if (cached.isPresent() && hasCompleteMetadata(cached.get())) {
-            return cached;
-        }
-        Optional<TrackCacheEntry> refreshed = fetchAndCache(userAuth, spotifyId);
-        if (refreshed.isPresent()) {
-            return refreshed;
-        }
-        return cached;
+    /**
+     * Looks up several tracks: ids that are missing from track_cache or lack metadata are fetched through Spotify's several-tracks endpoint in chunks of {@value #SPOTIFY_TRACK_CHUNK},
+     * and each chunk is written back as one batch. A failed chunk only loses its own ids. Spotify
+     * calls and token refreshes do not block; the cache query and writes run on the bounded elastic
+     * scheduler.
+     */
+    public Mono<Map<String, TrackCacheEntry>> getTracks(UserAuth userAuth, Collection<String> spotifyIds) {
+        Set<String> ids = spotifyIds.stream()
+            .filter(id -> id != null && !id.isBlank())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        return Mono.fromCallable(() -> repository.findFresh(ids))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(cachedEntries -> {
+                Map<String, TrackCacheEntry> resolved = new HashMap<>();
+                List<String> toFetch = new ArrayList<>();
+                for (String spotifyId : ids) {
+                    Optional<TrackCacheEntry> cached = Optional.ofNullable(cachedEntries.get(spotifyId));
+                    cached.ifPresent(entry -> resolved.put(spotifyId, entry));
+                    if (cached.isPresent() && hasCompleteMetadata(cached.get())) {
+                        if (repository.isStale(cached.get())) {
+                            cacheRefresher.refreshAsync("track_cache", spotifyId, () -> fetchAndCache(userAuth, spotifyId, true));
+                        }
+                    } else {
+                        toFetch.add(spotifyId);
+                    }
+                }
+                return fetchAndCacheAll(userAuth, toFetch).map(fetched -> {
+                    resolved.putAll(fetched);
+                    return resolved;
+                });
+            });
     }
 
-    public void cacheSeedTrack(SeedTrack track) {
+    public TrackCacheEntry cacheSeedTrack(SeedTrack track) {
         if (track == null || track.id() == null) {
-            return;
+            return null;
         }
-        TrackCacheEntry entry = new TrackCacheEntry(
-            track.id(),
-            track.name(),
-            track.artist(),
-            track.album(),
-            track.popularity(),
-            track.imageUrl(),
-            track.isrc(),
-            Instant.now()
-        );
+        TrackCacheEntry entry = toEntry(track);
         repository.upsert(entry);
+        return entry;
     }
 
     private boolean hasCompleteMetadata(TrackCacheEntry entry) {
         return entry.imageUrl() != null && !entry.imageUrl().isBlank();
     }
 
-    private Optional<TrackCacheEntry> fetchAndCache(UserAuth userAuth, String spotifyId) {
+    private Mono<Map<String, TrackCacheEntry>> fetchAndCacheAll(UserAuth userAuth, List<String> spotifyIds) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < spotifyIds.size(); i += SPOTIFY_TRACK_CHUNK) {
+            chunks.add(spotifyIds.subList(i, Math.min(spotifyIds.size(), i + SPOTIFY_TRACK_CHUNK)));
+        }
+        BatchAuth batchAuth = new BatchAuth(userAuth);
+        // Chunks run one after another so the token is refreshed at most once per batch and later
+        // chunks reuse the refreshed one
+        return Flux.fromIterable(chunks)
+            .concatMap(chunk -> fetchAndCacheChunk(batchAuth, chunk))
+            .collectMap(TrackCacheEntry::spotifyId, Function.identity());
+    }
+
+    /**
+     * Fetches and caches one chunk, refreshing the token and retrying once on the batch's first 401.
+     * A failure is logged and yields no entries.
+     */
+    private Flux<TrackCacheEntry> fetchAndCacheChunk(BatchAuth batchAuth, List<String> spotifyIds) {
+        UserAuth attemptAuth = batchAuth.current;
+        return spotifyApiClient.getTracksReactive(attemptAuth.accessToken(), spotifyIds)
+            .onErrorResume(WebClientResponseException.class, ex -> ex.getStatusCode().value() == 401 && !batchAuth.refreshed
+                ? batchAuth.refresh(attemptAuth).flatMap(refreshed -> spotifyApiClient.getTracksReactive(refreshed.accessToken(), spotifyIds))
+                : Mono.error(ex))
+            .map(tracks -> tracks.stream().map(this::toEntry).toList())
+            .publishOn(Schedulers.boundedElastic())
+            .doOnNext(repository::upsertAll)
+            .flatMapIterable(Function.identity())
+            .onErrorResume(ex -> {
+                if (ex instanceof WebClientResponseException responseException) {
+                    log.debug("Spotify batch track fetch failed for {} ids: {}", spotifyIds.size(), responseException.getStatusCode());
+                } else {
+                    log.warn("Batch track fetch error for {} ids: {}", spotifyIds.size(), ex.getMessage());
+                }
+                return Flux.empty();
+            });
+    }
+
+    /**
+     * The token a batch's chunks use. Chunks run one at a time, possibly on different threads.
+     */
+    private final class BatchAuth {
+
+        private volatile UserAuth current;
+        private volatile boolean refreshed;
+
+        BatchAuth(UserAuth userAuth) {
+            this.current = userAuth;
+        }
+
+        Mono<UserAuth> refresh(UserAuth failed) {
+            refreshed = true;
+            return spotifyAuthService.refreshAccessTokenReactive(failed)
+                .doOnNext(refreshedAuth -> current = refreshedAuth);
+        }
+    }
+
+    private Optional<TrackCacheEntry> fetchAndCache(UserAuth userAuth, String spotifyId, boolean mayRefresh) {
         try {
             SeedTrack track = spotifyApiClient.getTrack(userAuth.accessToken(), spotifyId);
-            TrackCacheEntry entry = new TrackCacheEntry(
-                track.id(),
-                track.name(),
-                track.artist(),
-                track.album(),
-                track.popularity(),
-                track.imageUrl(),
-                track.isrc(),
-                Instant.now()
-            );
+            TrackCacheEntry entry = toEntry(track);
             repository.upsert(entry);
             return Optional.of(entry);
         } catch (WebClientResponseException ex) {
-            if (ex.getStatusCode().value() == 401) {
+            if (ex.getStatusCode().value() == 401 && mayRefresh) {
                 UserAuth refreshed = spotifyAuthService.refreshAccessToken(userAuth);
-                return fetchAndCache(refreshed, spotifyId);
+                return fetchAndCache(refreshed, spotifyId, false);
             }
             log.debug("Spotify track fetch failed for {}: {}", spotifyId, ex.getStatusCode());
             return Optional.empty();
@@ -96,4 +172,17 @@ public class TrackCacheService {
             return Optional.empty();
         }
     }
+
+    private TrackCacheEntry toEntry(SeedTrack track) {
+        return new TrackCacheEntry(
+            track.id(),
+            track.name(),
+            track.artist(),
+            track.album(),
+            track.popularity(),
+            track.imageUrl(),
+            track.isrc(),
+            Instant.now()
+        );
+    }
 }
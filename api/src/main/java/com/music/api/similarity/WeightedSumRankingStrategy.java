@@ -0,0 +1,59 @@
+package com.music.api.similarity;
+
+/**
+ * Linear blend of Last.fm similarity, seed tag overlap, popularity z-score and a bonus for tracks
+ * the user up-voted. There is no penalty term: down-voted tracks are dropped before scoring. Weights
+ * are fixed at construction, so the scoring loop only touches final fields and the batch arrays.
+ */
+public final class WeightedSumRankingStrategy implements RankingStrategy {
+
+    private final String name;
+    private final double baseWeight;
+    private final double tagWeight;
+    private final double popularityWeight;
+    private final double feedbackWeight;
+    private final double diversityWeight;
+
+    public WeightedSumRankingStrategy(
+        String name,
+        double baseWeight,
+        double tagWeight,
+        double popularityWeight,
+        double feedbackWeight,
+        double diversityWeight
+    ) {
+        this.name = name;
+        this.baseWeight = baseWeight;
+        this.tagWeight = tagWeight;
+        this.popularityWeight = popularityWeight;
+        this.feedbackWeight = feedbackWeight;
+        this.diversityWeight = Math.max(0.0, Math.min(1.0, diversityWeight));
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public double diversityWeight() {
+        return diversityWeight;
+    }
+
+    @Override
+    public void score(ScoringBatch batch, double[] scores) {
+        double[] base = batch.baseSimilarity();
+        double[] tags = batch.tagOverlap();
+        double[] popularity = batch.popularity();
+        boolean[] hasPopularity = batch.hasPopularity();
+        double[] feedback = batch.feedback();
+        double mean = batch.popularityMean();
+        double std = batch.popularityStd();
+        // Folding 1/std into the weight keeps the loop free of divisions and branches on std
+        double popularityScale = std > 0.0 ? popularityWeight / std : 0.0;
+        for (int i = 0, n = batch.size(); i < n; i++) {
+            double popularityTerm = hasPopularity[i] ? (popularity[i] - mean) * popularityScale : 0.0;
+            scores[i] = baseWeight * base[i] + tagWeight * tags[i] + popularityTerm + feedbackWeight * feedback[i];
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.music.api.spotify;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -15,6 +16,7 @@ import org.springframework.web.reactive.function.client.WebClientResponseExcepti
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.music.api.support.AdaptiveRateLimiter;
 
 import io.github.resilience4j.reactor.retry.RetryOperator;
 import reactor.core.publisher.Mono;
@@ -26,13 +28,16 @@ public class SpotifyApiClient {
 
     private final WebClient spotifyWebClient;
     private final io.github.resilience4j.retry.Retry outboundHttpRetry;
+    private final AdaptiveRateLimiter spotifyRateLimiter;
 
     public SpotifyApiClient(
         @Qualifier("spotifyApiWebClient") WebClient spotifyWebClient,
-        @Qualifier("outboundHttpRetry") io.github.resilience4j.retry.Retry outboundHttpRetry
+        @Qualifier("outboundHttpRetry") io.github.resilience4j.retry.Retry outboundHttpRetry,
+        @Qualifier("spotifyRateLimiter") AdaptiveRateLimiter spotifyRateLimiter
     ) {
         this.spotifyWebClient = spotifyWebClient;
         this.outboundHttpRetry = outboundHttpRetry;
+        this.spotifyRateLimiter = spotifyRateLimiter;
     }
 
     public SpotifyUserProfile getCurrentUserProfile(String accessToken) {
@@ -45,6 +50,7 @@ public class SpotifyApiClient {
     }
 
     private static final String DEFAULT_TOP_TRACKS_TIME_RANGE = "short_term";
+    private static final int MAX_TRACKS_PER_REQUEST = 50;
 
     public List<SeedTrack> getTopTracks(String accessToken, int limit) {
         return getTopTracks(accessToken, limit, DEFAULT_TOP_TRACKS_TIME_RANGE);
@@ -71,20 +77,58 @@ public class SpotifyApiClient {
     }
 
     public SeedTrack getTrack(String accessToken, String trackId) {
-        try {
-            SpotifyTrack track = execute(spotifyWebClient.get()
-                .uri(uriBuilder -> uriBuilder
-                    .path("/tracks/{id}")
-                    .build(trackId))
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(headers -> headers.setBearerAuth(accessToken))
-                .retrieve()
-                .bodyToMono(SpotifyTrack.class));
-            return mapTrack(track);
-        } catch (WebClientResponseException ex) {
-            log.debug("Spotify track lookup failed for {}: {}", trackId, ex.getStatusCode());
-            throw ex;
+        return getTrackReactive(accessToken, trackId).block();
+    }
+
+    public Mono<SeedTrack> getTrackReactive(String accessToken, String trackId) {
+        return executeReactive(spotifyWebClient.get()
+            .uri(uriBuilder -> uriBuilder
+                .path("/tracks/{id}")
+                .build(trackId))
+            .accept(MediaType.APPLICATION_JSON)
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .retrieve()
+            .bodyToMono(SpotifyTrack.class))
+            .map(this::mapTrack)
+            .doOnError(WebClientResponseException.class,
+                ex -> log.debug("Spotify track lookup failed for {}: {}", trackId, ex.getStatusCode()));
+    }
+
+    /**
+     * Looks up at most {@value #MAX_TRACKS_PER_REQUEST} tracks in one call to the /tracks?ids= endpoint;
+     * callers split larger batches. Unknown ids are omitted from the result. More than
+     * {@value #MAX_TRACKS_PER_REQUEST} distinct ids fail with {@link IllegalArgumentException}.
+     */
+    public Mono<List<SeedTrack>> getTracksReactive(String accessToken, Collection<String> trackIds) {
+        List<String> ids = trackIds.stream()
+            .filter(id -> id != null && !id.isBlank())
+            .distinct()
+            .toList();
+        if (ids.size() > MAX_TRACKS_PER_REQUEST) {
+            return Mono.error(new IllegalArgumentException("At most " + MAX_TRACKS_PER_REQUEST + " track ids per request, got " + ids.size()));
+        }
+        if (ids.isEmpty()) {
+            return Mono.just(List.of());
         }
+        String joinedIds = String.join(",", ids);
+        return executeReactive(spotifyWebClient.get()
+            .uri(uriBuilder -> uriBuilder
+                .path("/tracks")
+                .queryParam("ids", joinedIds)
+                .build())
+            .accept(MediaType.APPLICATION_JSON)
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .retrieve()
+            .bodyToMono(SeveralTracksResponse.class))
+            .map(response -> response.tracks() == null
+                ? List.<SeedTrack>of()
+                : response.tracks().stream()
+                    .map(this::mapTrack)
+                    .filter(track -> track != null)
+                    .toList())
+            .defaultIfEmpty(List.of())
+            .doOnError(WebClientResponseException.class,
+                ex -> log.debug("Spotify several-tracks lookup failed for {}: {}", joinedIds, ex.getStatusCode()));
     }
 
     public CreatedPlaylist createPlaylist(String accessToken, String spotifyUserId, String name, boolean isPublic) {
@@ -121,29 +165,26 @@ public class SpotifyApiClient {
         }
     }
 
-    public SeedTrack searchTrack(String accessToken, String trackName, String artistName) {
+    /**
+     * Best Spotify match for a track and artist, or an empty Mono when the search has no result.
+     */
+    public Mono<SeedTrack> searchTrackReactive(String accessToken, String trackName, String artistName) {
         String query = String.format("track:\"%s\" artist:\"%s\"", trackName, artistName);
-        try {
-            SearchResponse response = execute(spotifyWebClient.get()
-                .uri(uriBuilder -> uriBuilder
-                    .path("/search")
-                    .queryParam("q", query)
-                    .queryParam("type", "track")
-                    .queryParam("limit", 1)
-                    .build())
-                .accept(MediaType.APPLICATION_JSON)
-                .headers(headers -> headers.setBearerAuth(accessToken))
-                .retrieve()
-                .bodyToMono(SearchResponse.class));
-
-            if (response == null || response.tracks() == null || response.tracks().items() == null || response.tracks().items().isEmpty()) {
-                return null;
-            }
-            return mapTrack(response.tracks().items().get(0));
-        } catch (WebClientResponseException ex) {
-            log.debug("Spotify search failed for {} - {}: {}", trackName, artistName, ex.getStatusCode());
-            throw ex;
-        }
+        return executeReactive(spotifyWebClient.get()
+            .uri(uriBuilder -> uriBuilder
+                .path("/search")
+                .queryParam("q", query)
+                .queryParam("type", "track")
+                .queryParam("limit", 1)
+                .build())
+            .accept(MediaType.APPLICATION_JSON)
+            .headers(headers -> headers.setBearerAuth(accessToken))
+            .retrieve()
+            .bodyToMono(SearchResponse.class))
+            .filter(response -> response.tracks() != null && response.tracks().items() != null && !response.tracks().items().isEmpty())
+            .map(response -> mapTrack(response.tracks().items().get(0)))
+            .doOnError(WebClientResponseException.class,
+                ex -> log.debug("Spotify search failed for {} - {}: {}", trackName, artistName, ex.getStatusCode()));
     }
 
     public List<SeedTrack> searchTracks(String accessToken, String query, int limit) {
@@ -239,6 +280,9 @@ public class SpotifyApiClient {
     @JsonIgnoreProperties(ignoreUnknown = true)
     public record TopTracksResponse(List<SpotifyTrack> items) {}
 
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record SeveralTracksResponse(List<SpotifyTrack> tracks) {}
+
     @JsonIgnoreProperties(ignoreUnknown = true)
     public record RecentlyPlayedResponse(List<RecentlyPlayedItem> items) {}
 
@@ -310,10 +354,16 @@ public class SpotifyApiClient {
     public record Tracks(List<SpotifyTrack> items) {}
 
     private <T> T execute(Mono<T> mono) {
-        return mono.transformDeferred(RetryOperator.of(outboundHttpRetry)).block();
+        return executeReactive(mono).block();
+    }
+
+    private <T> Mono<T> executeReactive(Mono<T> mono) {
+        return mono
+            .transformDeferred(spotifyRateLimiter.operator())
+            .transformDeferred(RetryOperator.of(outboundHttpRetry));
     }
 
     private void executeVoid(Mono<?> mono) {
-        mono.transformDeferred(RetryOperator.of(outboundHttpRetry)).then().block();
+        executeReactive(mono.then()).block();
     }
 }
@@ -0,0 +1,221 @@
+package com.music.api.support;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.reactor.ratelimiter.operator.RateLimiterOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * A per-upstream rate limiter whose rate follows the upstream's feedback (AIMD). Each successful
+ * call adds {@code 1 / rate} permits, so a saturated limiter gains roughly one permit per second every
+ * second; below one call per second each success adds the minimum rate instead, so recovering from
+ * a sub-second floor takes a few calls rather than one. A response the upstream uses to signal
+ * throttling (429 by default), or any response carrying {@code Retry-After}, halves the rate, at
+ * most once per second so a burst of rejections counts as one signal. A {@code Retry-After} also
+ * holds back new calls until it has elapsed. The rate is fractional and stays between the
+ * configured minimum and maximum.
+ *
+ * <p>Permits are granted by a resilience4j {@link RateLimiter} with a one second refresh period
+ * whose limit is adjusted as the rate moves; changes take effect from the next period. Its limit
+ * cannot go below one per period, so below one call per second calls are additionally spaced
+ * {@code 1 / rate} seconds apart. Publishes {@code ratelimiter.rate} (calls per second currently
+ * allowed) and {@code ratelimiter.throttled} (upstream rejections), tagged with the limiter name.
+ *
+ * <p>When other replicas call the same upstream, {@link ClusterPermits} caps their combined rate:
+ * a call then needs both a local permit and a cluster permit, and failing to get either within the
+ * timeout raises {@link RequestNotPermitted}.
+ */
+public class AdaptiveRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveRateLimiter.class);
+
+    private static final Duration REFRESH_PERIOD = Duration.ofSeconds(1);
+    private static final double DECREASE_FACTOR = 0.5;
+
+    /**
+     * The signal every upstream uses for throttling; responses with {@code Retry-After} always count.
+     */
+    public static final Predicate<WebClientResponseException> TOO_MANY_REQUESTS =
+        ex -> ex.getStatusCode().value() == 429;
+
+    private final String name;
+    private final RateLimiter rateLimiter;
+    private final double minRate;
+    private final double maxRate;
+    private final Duration timeout;
+    private final ClusterPermits clusterPermits;
+    private final Predicate<WebClientResponseException> isThrottled;
+    private final Counter throttled;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile double rate;
+    private volatile long pausedUntilNanos;
+    private long lastDecreaseNanos;
+    private long nextSlotNanos;
+
+    public AdaptiveRateLimiter(
+        String name,
+        double initialRate,
+        double minRate,
+        double maxRate,
+        Duration timeout,
+        MeterRegistry meterRegistry
+    ) {
+        this(name, initialRate, minRate, maxRate, timeout, TOO_MANY_REQUESTS, ClusterPermits.UNLIMITED, meterRegistry);
+    }
+
+    public AdaptiveRateLimiter(
+        String name,
+        double initialRate,
+        double minRate,
+        double maxRate,
+        Duration timeout,
+        Predicate<WebClientResponseException> isThrottled,
+        ClusterPermits clusterPermits,
+        MeterRegistry meterRegistry
+    ) {
+        if (minRate <= 0 || maxRate < minRate) {
+            throw new IllegalArgumentException("Rate limits for " + name + " must satisfy 0 < min <= max");
+        }
+        this.name = name;
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.timeout = timeout;
+        this.clusterPermits = clusterPermits;
+        this.isThrottled = isThrottled;
+        this.rate = Math.clamp(initialRate, minRate, maxRate);
+        this.lastDecreaseNanos = System.nanoTime() - REFRESH_PERIOD.toNanos();
+        this.rateLimiter = RateLimiter.of(name, RateLimiterConfig.custom()
+            .limitForPeriod(currentLimit())
+            .limitRefreshPeriod(REFRESH_PERIOD)
+            .timeoutDuration(timeout)
+            .build());
+        this.throttled = meterRegistry.counter("ratelimiter.throttled", "name", name);
+        Gauge.builder("ratelimiter.rate", this, AdaptiveRateLimiter::currentRate)
+            .tag("name", name)
+            .description("Calls per second currently allowed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Operator for {@code transformDeferred}: each subscription waits out any {@code Retry-After}
+     * pause and its sub-second slot, takes a local and then a cluster permit without blocking, and
+     * feeds its outcome back into the rate. Place it inside any retry operator so every attempt is
+     * limited and reported.
+     */
+    public <T> Function<Mono<T>, Mono<T>> operator() {
+        RateLimiterOperator<T> permits = RateLimiterOperator.of(rateLimiter);
+        return source -> Mono.defer(() -> {
+            Mono<T> call = clusterPermits.acquire(timeout)
+                .flatMap(granted -> granted
+                    ? source
+                    : Mono.<T>error(RequestNotPermitted.createRequestNotPermitted(rateLimiter)))
+                .transformDeferred(permits)
+                .doOnSuccess(ignored -> onSuccess())
+                .doOnError(this::onError);
+            long now = System.nanoTime();
+            long slotNanos = reserveSlot(now);
+            if (slotNanos < 0) {
+                return Mono.error(RequestNotPermitted.createRequestNotPermitted(rateLimiter));
+            }
+            long pauseNanos = Math.max(pausedUntilNanos - now, slotNanos);
+            return pauseNanos > 0 ? Mono.delay(Duration.ofNanos(pauseNanos)).then(call) : call;
+        });
+    }
+
+    public double currentRate() {
+        return rate;
+    }
+
+    /**
+     * Permits per one second period handed to the underlying resilience4j limiter.
+     */
+    public int currentLimit() {
+        return Math.max(1, (int) Math.floor(rate));
+    }
+
+    /**
+     * Below one call per second, reserves the next free slot and returns how long to wait for it,
+     * or -1 if that is longer than the timeout. At or above one call per second returns 0.
+     */
+    private long reserveSlot(long now) {
+        if (rate >= 1) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            long slot = Math.max(now, nextSlotNanos);
+            if (slot - now > timeout.toNanos()) {
+                return -1;
+            }
+            nextSlotNanos = slot + (long) (1_000_000_000L / rate);
+            return slot - now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onSuccess() {
+        if (rate >= maxRate) {
+            return;
+        }
+        lock.lock();
+        try {
+            rate = Math.min(maxRate, rate + (rate < 1 ? minRate : 1.0 / rate));
+            applyLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onThrottled(Optional<Duration> retryAfter) {
+        throttled.increment();
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            retryAfter.ifPresent(delay -> pausedUntilNanos = Math.max(pausedUntilNanos, now + delay.toNanos()));
+            if (now - lastDecreaseNanos < REFRESH_PERIOD.toNanos()) {
+                return;
+            }
+            lastDecreaseNanos = now;
+            rate = Math.max(minRate, rate * DECREASE_FACTOR);
+            applyLimit();
+        } finally {
+            lock.unlock();
+        }
+        if (retryAfter.isPresent()) {
+            rateLimiter.drainPermissions();
+        }
+        log.info("{} rate limited by upstream, now allowing {} calls/s", name, String.format("%.2f", rate));
+    }
+
+    private void onError(Throwable failure) {
+        if (failure instanceof WebClientResponseException ex) {
+            Optional<Duration> retryAfter = HttpRetryUtils.retryAfter(ex);
+            if (isThrottled.test(ex) || retryAfter.isPresent()) {
+                onThrottled(retryAfter);
+            }
+        }
+    }
+
+    private void applyLimit() {
+        int limit = currentLimit();
+        if (limit != rateLimiter.getRateLimiterConfig().getLimitForPeriod()) {
+            rateLimiter.changeLimitForPeriod(limit);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.music.api.support;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * A long-lived queue of keyed work drained by one consumer running at most {@code parallelism}
+ * loads at a time, however many callers submit. A key already queued or running is not queued
+ * again; its callers share the pending result. At most {@code capacity} keys are outstanding;
+ * submissions beyond that fail with {@link RejectedExecutionException} without queueing anything.
+ * Work is not tied to its callers, so cancelling a caller does not cancel the load.
+ *
+ * <p>Publishes {@code workqueue.items} tagged with the outcome ({@code queued}, {@code coalesced},
+ * {@code overflowed}, or {@code dropped} when a load fails) and {@code workqueue.depth}, the keys
+ * currently queued or running.
+ */
+public final class BoundedWorkQueue<K, V> {
+
+    private final String name;
+    private final int capacity;
+    private final Function<K, Mono<V>> loader;
+    private final Map<K, CompletableFuture<V>> outstanding = new ConcurrentHashMap<>();
+    private final Sinks.Many<K> queue = Sinks.many().unicast().onBackpressureBuffer();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Disposable consumer;
+    private final Counter queued;
+    private final Counter coalesced;
+    private final Counter overflowed;
+    private final Counter dropped;
+
+    public BoundedWorkQueue(
+        String name,
+        int capacity,
+        int parallelism,
+        Function<K, Mono<V>> loader,
+        MeterRegistry meterRegistry
+    ) {
+        this.name = name;
+        this.capacity = Math.max(1, capacity);
+        this.loader = loader;
+        this.queued = counter(meterRegistry, name, "queued");
+        this.coalesced = counter(meterRegistry, name, "coalesced");
+        this.overflowed = counter(meterRegistry, name, "overflowed");
+        this.dropped = counter(meterRegistry, name, "dropped");
+        Gauge.builder("workqueue.depth", outstanding, Map::size)
+            .tag("name", name)
+            .register(meterRegistry);
+        this.consumer = queue.asFlux()
+            .flatMap(this::run, Math.max(1, parallelism))
+            .subscribe();
+    }
+
+    /**
+     * Queues {@code key} unless it is already outstanding and returns its eventual result. An empty
+     * load completes callers empty.
+     */
+    public Mono<V> submit(K key) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> existing = outstanding.get(key);
+            if (existing != null) {
+                coalesced.increment();
+                return Mono.fromFuture(existing, true);
+            }
+            CompletableFuture<V> created = new CompletableFuture<>();
+            lock.lock();
+            try {
+                existing = outstanding.putIfAbsent(key, created);
+                if (existing != null) {
+                    coalesced.increment();
+                    return Mono.fromFuture(existing, true);
+                }
+                // The sink is unbounded; the outstanding map is what bounds the queue
+                if (outstanding.size() > capacity || queue.tryEmitNext(key).isFailure()) {
+                    outstanding.remove(key, created);
+                    overflowed.increment();
+                    return Mono.error(new RejectedExecutionException(name + " queue is full"));
+                }
+            } finally {
+                lock.unlock();
+            }
+            queued.increment();
+            return Mono.fromFuture(created, true);
+        });
+    }
+
+    public void dispose() {
+        consumer.dispose();
+    }
+
+    private Mono<Void> run(K key) {
+        CompletableFuture<V> result = outstanding.get(key);
+        // Leave the map before completing so a caller resuming on the result can queue the key again
+        return Mono.defer(() -> loader.apply(key))
+            .doOnSuccess(value -> {
+                outstanding.remove(key, result);
+                result.complete(value);
+            })
+            .onErrorResume(ex -> {
+                outstanding.remove(key, result);
+                dropped.increment();
+                result.completeExceptionally(ex);
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder("workqueue.items")
+            .tag("name", name)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,19 @@
+package com.music.api.support;
+
+import java.time.Duration;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A budget of upstream calls shared with other replicas. {@link AdaptiveRateLimiter} takes one
+ * permit from it for every call after its own per-process permit.
+ */
+public interface ClusterPermits {
+
+    ClusterPermits UNLIMITED = timeout -> Mono.just(true);
+
+    /**
+     * Emits true once a permit is granted, or false if none became available within {@code timeout}.
+     */
+    Mono<Boolean> acquire(Duration timeout);
+}
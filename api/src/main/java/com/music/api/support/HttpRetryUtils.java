@@ -32,9 +32,7 @@ public final class HttpRetryUtils {
         if (failure == null) {
             delay = defaultBackoff(attempt);
         } else if (failure instanceof WebClientResponseException ex && ex.getStatusCode().value() == 429) {
-            delay = parseRetryAfter(ex.getHeaders())
-                .filter(duration -> !duration.isNegative() && !duration.isZero())
-                .orElseGet(() -> defaultBackoff(attempt));
+            delay = retryAfter(ex).orElseGet(() -> defaultBackoff(attempt));
         } else if (failure instanceof WebClientResponseException ex && ex.getStatusCode().is5xxServerError()
             || failure instanceof WebClientRequestException) {
             Duration base = defaultBackoff(attempt);
@@ -47,6 +45,14 @@ public final class HttpRetryUtils {
         return Math.max(1, delay.toMillis());
     }
 
+    /**
+     * The positive delay requested by the response's {@code Retry-After} header, if any.
+     */
+    public static Optional<Duration> retryAfter(WebClientResponseException ex) {
+        return parseRetryAfter(ex.getHeaders())
+            .filter(duration -> !duration.isNegative() && !duration.isZero());
+    }
+
     private static Duration defaultBackoff(long attempt) {
         double multiplier = Math.pow(2, Math.max(0, attempt - 1));
         long millis = (long) Math.min(MIN_BACKOFF.toMillis() * multiplier, MAX_BACKOFF.toMillis());
@@ -0,0 +1,60 @@
+package com.music.api.support;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Collapses concurrent calls for the same key into a single execution. The first caller runs
+ * the loader; callers arriving while it is in flight wait for and share its result (or failure).
+ * Nothing is retained once the call completes, so this is not a cache.
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executions;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executions = Counter.builder("singleflight.calls")
+            .tag("name", name)
+            .tag("result", "executed")
+            .register(meterRegistry);
+        this.coalesced = Counter.builder("singleflight.calls")
+            .tag("name", name)
+            .tag("result", "coalesced")
+            .register(meterRegistry);
+        Gauge.builder("singleflight.in.flight", inFlight, Map::size)
+            .tag("name", name)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs the loader for {@code key} unless a call for it is already in flight. The loader is
+     * subscribed independently of the caller, so cancelling one subscriber neither cancels the
+     * call nor fails the others waiting on it. An empty loader result completes callers empty.
+     */
+    public Mono<V> executeReactive(K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> created = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+            if (existing != null) {
+                coalesced.increment();
+                return Mono.fromFuture(existing, true);
+            }
+
+            executions.increment();
+            // Leave the map before completing: waiters resume synchronously and may call again
+            Mono.defer(loader)
+                .doOnEach(signal -> inFlight.remove(key, created))
+                .subscribe(created::complete, created::completeExceptionally, () -> created.complete(null));
+            return Mono.fromFuture(created, true);
+        });
+    }
+}
@@ -18,7 +18,6 @@ import com.music.api.feedback.FeedbackService.FeedbackVote;
 import com.music.api.playlists.PlaylistService;
 import com.music.api.playlists.PlaylistService.PlaylistResult;
 import com.music.api.recommendation.RecommendationService;
-import com.music.api.recommendation.RecommendationService.RecommendationResult;
 import com.music.api.web.dto.CreatePlaylistRequest;
 import com.music.api.web.dto.CreatePlaylistResponse;
 import com.music.api.web.dto.FeedbackRequest;
@@ -26,6 +25,8 @@ import com.music.api.web.dto.FeedbackResponse;
 import com.music.api.web.dto.RecommendationResponse;
 import com.music.api.web.dto.RecommendationTrackView;
 
+import reactor.core.publisher.Mono;
+
 @RestController
 public class RecommendationController {
 
@@ -43,17 +44,24 @@ public class RecommendationController {
         this.feedbackService = feedbackService;
     }
 
+    /**
+     * Served asynchronously: the servlet thread is released as soon as the pipeline is assembled
+     * and the response is written when it completes.
+     */
     @GetMapping("/recommend")
-    public ResponseEntity<RecommendationResponse> recommend(
+    public Mono<ResponseEntity<RecommendationResponse>> recommend(
         @RequestParam("userId") UUID userId,
         @RequestParam("seed") String seed,
-        @RequestParam(name = "limit", defaultValue = "20") int limit
+        @RequestParam(name = "limit", defaultValue = "20") int limit,
+        @RequestParam(name = "profile", required = false) String profile
     ) {
-        RecommendationResult result = recommendationService.getRecommendations(userId, seed, limit);
-        List<RecommendationTrackView> items = result.tracks().stream()
-            .map(RecommendationTrackView::fromRankedTrack)
-            .toList();
-        return ResponseEntity.ok(new RecommendationResponse(result.seed(), result.strategy(), items));
+        return recommendationService.getRecommendationsReactive(userId, seed, limit, profile)
+            .map(result -> {
+                List<RecommendationTrackView> items = result.tracks().stream()
+                    .map(RecommendationTrackView::fromRankedTrack)
+                    .toList();
+                return ResponseEntity.ok(new RecommendationResponse(result.seed(), result.strategy(), result.rankingProfile(), items));
+            });
     }
 
     @PostMapping("/playlist")
@@ -9,10 +9,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.music.api.recommendation.RecommendationService;
-import com.music.api.recommendation.RecommendationService.RecommendationResult;
 import com.music.api.seeds.SeedTrackView;
 import com.music.api.similarity.RankingService.RankedTrack;
 
+import reactor.core.publisher.Mono;
+
 @RestController
 public class SimilarityController {
 
@@ -23,27 +24,32 @@ public class SimilarityController {
     }
 
     @GetMapping("/similarity/candidates")
-    public ResponseEntity<SimilarityResponse> candidates(
+    public Mono<ResponseEntity<SimilarityResponse>> candidates(
         @RequestParam("userId") UUID userId,
         @RequestParam("trackId") String trackId,
-        @RequestParam(name = "limit", required = false) Integer limit
+        @RequestParam(name = "limit", required = false) Integer limit,
+        @RequestParam(name = "profile", required = false) String profile
     ) {
-        RecommendationResult result = recommendationService.getRecommendations(userId, trackId, limit);
-        List<CandidateTrackView> items = result.tracks().stream()
-            .map(CandidateTrackView::fromRankedTrack)
-            .toList();
+        return recommendationService.getRecommendationsReactive(userId, trackId, limit, profile)
+            .map(result -> {
+                List<CandidateTrackView> items = result.tracks().stream()
+                    .map(CandidateTrackView::fromRankedTrack)
+                    .toList();
 
-        SimilarityResponse response = new SimilarityResponse(
-            result.seed(),
-            result.strategy(),
-            items
-        );
-        return ResponseEntity.ok(response);
+                SimilarityResponse response = new SimilarityResponse(
+                    result.seed(),
+                    result.strategy(),
+                    result.rankingProfile(),
+                    items
+                );
+                return ResponseEntity.ok(response);
+            });
     }
 
     public record SimilarityResponse(
         SeedTrackView seed,
         String strategy,
+        String rankingProfile,
         List<CandidateTrackView> tracks
     ) {}
 
@@ -54,6 +60,7 @@ public class SimilarityController {
         double score,
         double lastFmMatch,
         double tagOverlap,
+        boolean tagsPending,
         double confidence,
         Integer popularity,
         boolean cached,
@@ -68,6 +75,7 @@ public class SimilarityController {
                 ranked.score(),
                 ranked.rawMatch(),
                 ranked.tagOverlap(),
+                ranked.tagsPending(),
                 ranked.confidence(),
                 ranked.popularity(),
                 ranked.cached(),
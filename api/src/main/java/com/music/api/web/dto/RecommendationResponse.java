@@ -7,5 +7,6 @@ import com.music.api.seeds.SeedTrackView;
 public record RecommendationResponse(
     SeedTrackView seed,
     String strategy,
+    String rankingProfile,
     List<RecommendationTrackView> items
 ) {}
@@ -0,0 +1,10 @@
+-- Negative cache for Last.fm candidates that Spotify search could not resolve
+
+CREATE TABLE id_map_miss (
+    source TEXT NOT NULL,
+    source_key TEXT NOT NULL,
+    cached_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (source, source_key)
+);
+
+CREATE INDEX idx_id_map_miss_cached_at ON id_map_miss (cached_at);
@@ -0,0 +1,7 @@
+-- Token buckets shared by every replica, so upstream rate limits hold across the cluster
+
+CREATE TABLE rate_limit_buckets (
+    name TEXT PRIMARY KEY,
+    tokens DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,52 @@
+package com.music.api.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+class WebClientConfigTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MockWebServer server = new MockWebServer();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Metrics.addRegistry(registry);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.shutdown();
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    void poolGaugesReflectConfiguredLimits() {
+        UpstreamHttpProperties properties = new UpstreamHttpProperties();
+        properties.getLastfm().setMaxConnections(3);
+        WebClientConfig config = new WebClientConfig(properties);
+        server.enqueue(new MockResponse().setBody("{}"));
+        try {
+            WebClient lastFm = config.lastFmWebClient(WebClient.builder(), server.url("/").toString());
+            lastFm.get().retrieve().bodyToMono(String.class).block();
+
+            Gauge maxConnections = registry.find("reactor.netty.connection.provider.max.connections")
+                .tag("name", "lastfm")
+                .gauge();
+            assertThat(maxConnections).isNotNull();
+            assertThat(maxConnections.value()).isEqualTo(3.0);
+        } finally {
+            config.destroy();
+        }
+    }
+}
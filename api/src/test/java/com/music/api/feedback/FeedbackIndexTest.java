@@ -0,0 +1,52 @@
+package com.music.api.feedback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FeedbackIndexTest {
+
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    void loadsUserOnceAndAppliesSavedVotes() {
+        FeedbackRepository repository = mock(FeedbackRepository.class);
+        when(repository.findByUser(userId)).thenReturn(List.of(
+            new FeedbackRecord(userId, "liked", (short) 1, Instant.now()),
+            new FeedbackRecord(userId, "disliked", (short) -1, Instant.now())
+        ));
+        FeedbackIndex index = new FeedbackIndex(repository, new SimpleMeterRegistry());
+
+        UserFeedback feedback = index.forUser(userId);
+        index.record(new FeedbackRecord(userId, "liked", (short) -1, Instant.now()));
+        index.record(new FeedbackRecord(userId, "new", (short) 1, Instant.now()));
+
+        assertThat(index.forUser(userId).label("liked")).isEqualTo(-1);
+        assertThat(feedback.label("new")).isEqualTo(1);
+        assertThat(feedback.isDownVoted("disliked")).isTrue();
+        assertThat(feedback.label("unknown")).isZero();
+        verify(repository, times(1)).findByUser(userId);
+    }
+
+    @Test
+    void votesForUnloadedUsersAreLeftToTheLazyLoad() {
+        FeedbackRepository repository = mock(FeedbackRepository.class);
+        when(repository.findByUser(userId)).thenReturn(List.of());
+        FeedbackIndex index = new FeedbackIndex(repository, new SimpleMeterRegistry());
+
+        index.record(new FeedbackRecord(userId, "track", (short) 1, Instant.now()));
+
+        verify(repository, times(0)).findByUser(userId);
+        assertThat(index.forUser(userId).size()).isZero();
+    }
+}
@@ -0,0 +1,80 @@
+package com.music.api.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.music.api.ratelimit.RateLimitBucketRepository.Lease;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+
+@Testcontainers
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RateLimitBucketRepository.class)
+// Buckets are shared through committed rows, exactly as between replicas
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PostgresTokenBucketIntegrationTest {
+
+    private static final int RATE = 5;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void registerProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private RateLimitBucketRepository repository;
+
+    @Test
+    void missingBucketIsCreatedFullAndThenRefillsAtTheRate() throws Exception {
+        Lease first = repository.take("refill", RATE, RATE, 10);
+        Lease drained = repository.take("refill", RATE, RATE, 1);
+        Thread.sleep(450);
+        Lease refilled = repository.take("refill", RATE, RATE, 10);
+
+        assertThat(first.permits()).isEqualTo(RATE);
+        assertThat(drained.permits()).isZero();
+        // 450ms at 5/s refills two whole tokens
+        assertThat(refilled.permits()).isEqualTo(2);
+    }
+
+    @Test
+    void twoReplicasNeverExceedTheRateTogether() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PostgresTokenBucket replicaA = new PostgresTokenBucket("contended", RATE, 2, repository, registry);
+        PostgresTokenBucket replicaB = new PostgresTokenBucket("contended", RATE, 2, repository, registry);
+
+        long started = System.nanoTime();
+        List<Boolean> outcomes = Flux.range(0, 60)
+            .flatMap(i -> (i % 2 == 0 ? replicaA : replicaB).acquire(Duration.ofSeconds(2)))
+            .collectList()
+            .block(Duration.ofSeconds(10));
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        long granted = outcomes.stream().filter(Boolean::booleanValue).count();
+        // A full bucket plus whatever refilled while the test ran, across both replicas
+        assertThat(granted).isGreaterThan(RATE);
+        assertThat(granted).isLessThanOrEqualTo(RATE + (long) Math.floor(RATE * elapsedSeconds));
+    }
+}
@@ -0,0 +1,42 @@
+package com.music.api.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.music.api.ratelimit.RateLimitBucketRepository.Lease;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PostgresTokenBucketTest {
+
+    private final RateLimitBucketRepository repository = mock(RateLimitBucketRepository.class);
+
+    @Test
+    void leasedTokensAreHandedOutWithoutAnotherQuery() {
+        when(repository.take(eq("lastfm"), anyDouble(), anyInt(), anyInt())).thenReturn(new Lease(2, 3.0));
+        PostgresTokenBucket bucket = new PostgresTokenBucket("lastfm", 5, 2, repository, new SimpleMeterRegistry());
+
+        assertThat(bucket.acquire(Duration.ofSeconds(1)).block()).isTrue();
+        assertThat(bucket.acquire(Duration.ofSeconds(1)).block()).isTrue();
+
+        verify(repository, times(1)).take("lastfm", 5, 5, 2);
+    }
+
+    @Test
+    void emptyBucketDeniesOnceTheRefillWouldOutlastTheTimeout() {
+        when(repository.take(eq("musicbrainz"), anyDouble(), anyInt(), anyInt())).thenReturn(new Lease(0, 0.0));
+        PostgresTokenBucket bucket = new PostgresTokenBucket("musicbrainz", 1, 1, repository, new SimpleMeterRegistry());
+
+        assertThat(bucket.acquire(Duration.ofMillis(100)).block()).isFalse();
+    }
+}
@@ -0,0 +1,83 @@
+package com.music.api.recommendation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.music.api.auth.UserAuth;
+import com.music.api.auth.UserAuthRepository;
+import com.music.api.feedback.FeedbackIndex;
+import com.music.api.feedback.FeedbackRecord;
+import com.music.api.feedback.FeedbackRepository;
+import com.music.api.feedback.FeedbackService;
+import com.music.api.feedback.FeedbackService.FeedbackVote;
+import com.music.api.feedback.UserFeedback;
+import com.music.api.recommendation.RecommendationResultCache.ResultKey;
+import com.music.api.recommendation.RecommendationService.RecommendationResult;
+import com.music.api.similarity.RankingService.RankedTrack;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecommendationResultCacheTest {
+
+    @Test
+    void servesCachedListUntilTheUserVotes() {
+        UUID userId = UUID.randomUUID();
+        UserAuthRepository userAuthRepository = mock(UserAuthRepository.class);
+        when(userAuthRepository.findByUserId(userId)).thenReturn(Optional.of(
+            new UserAuth(userId, "user", "token", "refresh", "", Instant.now(), Instant.now())
+        ));
+        FeedbackRepository feedbackRepository = mock(FeedbackRepository.class);
+        when(feedbackRepository.findByUser(userId)).thenReturn(List.of());
+        when(feedbackRepository.upsert(userId, "track", (short) -1))
+            .thenReturn(new FeedbackRecord(userId, "track", (short) -1, Instant.now()));
+        FeedbackIndex feedbackIndex = new FeedbackIndex(feedbackRepository, new SimpleMeterRegistry());
+        FeedbackService feedbackService = new FeedbackService(userAuthRepository, feedbackRepository, feedbackIndex);
+        RecommendationResultCache cache = new RecommendationResultCache(new RecommendationProperties(), new SimpleMeterRegistry());
+
+        ResultKey key = new ResultKey(userId, "seed", "default");
+        RecommendationResult result = new RecommendationResult(null, "track", "default", List.of());
+        UserFeedback feedback = feedbackIndex.forUser(userId);
+        cache.put(key, result, feedback, feedback.version());
+
+        assertThat(cache.get(key, feedbackIndex.forUser(userId))).contains(result);
+        assertThat(cache.get(new ResultKey(userId, "seed", "other"), feedbackIndex.forUser(userId))).isEmpty();
+
+        feedbackService.saveFeedback(userId, "track", FeedbackVote.DOWN);
+
+        assertThat(cache.get(key, feedbackIndex.forUser(userId))).isEmpty();
+    }
+
+    @Test
+    void listsRankedWithPendingTagsAreNotCached() {
+        UUID userId = UUID.randomUUID();
+        FeedbackRepository feedbackRepository = mock(FeedbackRepository.class);
+        when(feedbackRepository.findByUser(userId)).thenReturn(List.of());
+        FeedbackIndex feedbackIndex = new FeedbackIndex(feedbackRepository, new SimpleMeterRegistry());
+        RecommendationResultCache cache = new RecommendationResultCache(new RecommendationProperties(), new SimpleMeterRegistry());
+        UserFeedback feedback = feedbackIndex.forUser(userId);
+
+        ResultKey pendingKey = new ResultKey(userId, "pending", "default");
+        cache.put(pendingKey, resultWith(track("a", false), track("b", true)), feedback, feedback.version());
+        ResultKey resolvedKey = new ResultKey(userId, "resolved", "default");
+        cache.put(resolvedKey, resultWith(track("a", false), track("b", false)), feedback, feedback.version());
+
+        assertThat(cache.get(pendingKey, feedback)).isEmpty();
+        assertThat(cache.get(resolvedKey, feedback)).isPresent();
+    }
+
+    private static RecommendationResult resultWith(RankedTrack... tracks) {
+        return new RecommendationResult(null, "track", "default", List.of(tracks));
+    }
+
+    private static RankedTrack track(String spotifyId, boolean tagsPending) {
+        return new RankedTrack("name", "artist", spotifyId, 1.0, 1.0, 0.0, tagsPending, 1.0, null, false, null, null);
+    }
+}
@@ -0,0 +1,159 @@
+package com.music.api.similarity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.music.api.similarity.ArtistTagService.TagLookup;
+import com.music.api.similarity.ArtistTagsRepository.CachedTags;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ArtistTagServiceTest {
+
+    private ArtistTagsRepository repository;
+    private MusicBrainzClient musicBrainzClient;
+    private TagVocabulary tagVocabulary;
+    private SimpleMeterRegistry meterRegistry;
+    private ArtistTagService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ArtistTagsRepository.class);
+        musicBrainzClient = mock(MusicBrainzClient.class);
+        tagVocabulary = new TagVocabulary();
+        meterRegistry = new SimpleMeterRegistry();
+        service = newService(new SimilarityProperties());
+    }
+
+    @Test
+    void bulkLookupReadsCacheOnceAndFetchesEachMissOnce() {
+        when(repository.findFreshTags(anyCollection())).thenReturn(Map.of(
+            "Cached", new CachedTags("[\"Rock\", \"Indie\"]", false)
+        ));
+        when(musicBrainzClient.fetchArtistTagsReactive("Missing")).thenReturn(Mono.just(List.of("Jazz")));
+
+        Map<String, TagSet> tags = service.getTagsReactive(List.of("Cached", "Missing", "Cached", "Missing", " "), Duration.ZERO)
+            .block()
+            .tags();
+
+        assertThat(tags).containsOnlyKeys("Cached", "Missing");
+        assertThat(tags.get("Cached")).isEqualTo(tagVocabulary.encode(List.of("indie", "rock")));
+        assertThat(tags.get("Missing")).isEqualTo(tagVocabulary.encode(List.of("jazz")));
+        verify(repository, times(1)).findFreshTags(anyCollection());
+        verify(musicBrainzClient, times(1)).fetchArtistTagsReactive(anyString());
+        verify(repository).upsert("Missing", "[\"Jazz\"]");
+    }
+
+    @Test
+    void lookupsMissingTheBudgetArePendingAndFinishInBackground() {
+        when(repository.findFreshTags(anyCollection())).thenReturn(Map.of());
+        when(musicBrainzClient.fetchArtistTagsReactive("Quick")).thenReturn(Mono.just(List.of("Pop")));
+        when(musicBrainzClient.fetchArtistTagsReactive("Slow"))
+            .thenReturn(Mono.delay(Duration.ofMillis(500)).thenReturn(List.of("Ambient")));
+
+        TagLookup lookup = service.getTagsReactive(List.of("Quick", "Slow"), Duration.ofMillis(200)).block();
+
+        assertThat(lookup.tags()).containsOnlyKeys("Quick");
+        assertThat(lookup.pending()).containsExactly("Slow");
+
+        // A later request waits on the lookup still queued rather than starting another
+        TagLookup later = service.getTagsReactive(List.of("Slow"), Duration.ofSeconds(2)).block();
+
+        assertThat(later.tags()).containsOnlyKeys("Slow");
+        verify(repository, timeout(2000)).upsert("Slow", "[\"Ambient\"]");
+        verify(musicBrainzClient, times(1)).fetchArtistTagsReactive("Slow");
+    }
+
+    @Test
+    void lookupsFromConcurrentRequestsShareOneBoundedQueue() {
+        when(repository.findFreshTags(anyCollection())).thenReturn(Map.of());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(musicBrainzClient.fetchArtistTagsReactive(anyString())).thenAnswer(invocation -> Mono.defer(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            return Mono.delay(Duration.ofMillis(50)).thenReturn(List.of("Rock"));
+        }).doOnTerminate(running::decrementAndGet));
+
+        List<TagLookup> lookups = Flux.range(0, 4)
+            .flatMap(i -> service.getTagsReactive(List.of("Artist " + i, "Artist " + (i + 1)), Duration.ZERO))
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(lookups).allSatisfy(lookup -> assertThat(lookup.tags()).hasSize(2));
+        assertThat(maxRunning).hasValue(1);
+        verify(musicBrainzClient, times(5)).fetchArtistTagsReactive(anyString());
+    }
+
+    @Test
+    void lookupsBeyondTheQueueCapacityAreCountedNotStartedAndReportedPending() {
+        SimilarityProperties properties = new SimilarityProperties();
+        properties.setTagFetchQueueCapacity(1);
+        service = newService(properties);
+        when(repository.findFreshTags(anyCollection())).thenReturn(Map.of());
+        when(musicBrainzClient.fetchArtistTagsReactive("Slow"))
+            .thenReturn(Mono.delay(Duration.ofMillis(300)).thenReturn(List.of("Ambient")));
+
+        TagLookup lookup = service.getTagsReactive(List.of("Slow", "Overflow"), Duration.ofMillis(100)).block();
+
+        assertThat(lookup.pending()).containsExactlyInAnyOrder("Slow", "Overflow");
+        assertThat(meterRegistry.get("workqueue.items").tag("name", "artist_tags").tag("outcome", "overflowed")
+            .counter().count()).isEqualTo(1.0);
+        verify(repository, timeout(2000)).upsert("Slow", "[\"Ambient\"]");
+        verify(musicBrainzClient, times(0)).fetchArtistTagsReactive("Overflow");
+    }
+
+    @Test
+    void staleRowsAreServedWhileExactlyOneRefreshRuns() {
+        when(repository.findFreshTags(anyCollection())).thenReturn(Map.of("Stale", new CachedTags("[\"Rock\"]", true)));
+        when(musicBrainzClient.fetchArtistTagsReactive("Stale")).thenReturn(Mono.just(List.of("Shoegaze")));
+        List<Runnable> scheduled = new ArrayList<>();
+        service = newService(new SimilarityProperties(), new CacheRefresher(scheduled::add, meterRegistry));
+
+        for (int i = 0; i < 2; i++) {
+            TagLookup lookup = service.getTagsReactive(List.of("Stale"), Duration.ZERO).block();
+
+            assertThat(lookup.tags().get("Stale")).isEqualTo(tagVocabulary.encode(List.of("rock")));
+            assertThat(lookup.pending()).isEmpty();
+        }
+        assertThat(scheduled).hasSize(1);
+        scheduled.get(0).run();
+
+        verify(repository).upsert("Stale", "[\"Shoegaze\"]");
+        verify(musicBrainzClient, times(1)).fetchArtistTagsReactive("Stale");
+        assertThat(meterRegistry.counter("cache.refresh", "cache", "artist_tags", "outcome", "coalesced").count()).isEqualTo(1.0);
+    }
+
+    private ArtistTagService newService(SimilarityProperties properties) {
+        return newService(properties, mock(CacheRefresher.class));
+    }
+
+    private ArtistTagService newService(SimilarityProperties properties, CacheRefresher cacheRefresher) {
+        return new ArtistTagService(
+            repository,
+            musicBrainzClient,
+            new ObjectMapper(),
+            tagVocabulary,
+            cacheRefresher,
+            properties,
+            meterRegistry
+        );
+    }
+}
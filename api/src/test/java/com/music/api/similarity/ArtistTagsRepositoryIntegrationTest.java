@@ -0,0 +1,81 @@
+package com.music.api.similarity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.music.api.similarity.ArtistTagsRepository.CachedTags;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ArtistTagsRepository.class, CacheProperties.class})
+class ArtistTagsRepositoryIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void registerProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("cache.stale-while-revalidate", () -> "true");
+        registry.add("cache.stale-grace", () -> "1d");
+    }
+
+    @Autowired
+    private ArtistTagsRepository repository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void insertRows() {
+        // The TTL is 30 days and the grace window one more
+        insert("Fresh", "29 days");
+        insert("Stale", "30 days 12 hours");
+        insert("Expired", "31 days 12 hours");
+    }
+
+    @Test
+    void rowsInsideTheGraceWindowAreServedAsStaleAndOlderRowsAreMisses() {
+        Map<String, CachedTags> cached = repository.findFreshTags(List.of("Fresh", "Stale", "Expired"));
+
+        assertThat(cached).containsOnlyKeys("Fresh", "Stale");
+        assertThat(cached.get("Fresh").stale()).isFalse();
+        assertThat(cached.get("Stale").stale()).isTrue();
+        assertThat(repository.findFreshTags("Stale")).hasValueSatisfying(tags -> assertThat(tags.stale()).isTrue());
+        assertThat(repository.findFreshTags("Expired")).isEmpty();
+    }
+
+    @Test
+    void purgeKeepsRowsUntilTheGraceWindowEnds() {
+        assertThat(repository.purgeExpired()).isEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForList("SELECT artist_name FROM artist_tags ORDER BY artist_name", Map.of(), String.class))
+            .containsExactly("Fresh", "Stale");
+    }
+
+    private void insert(String artistName, String age) {
+        jdbcTemplate.update("""
+            INSERT INTO artist_tags (artist_name, tags_json, cached_at, source)
+            VALUES (:artistName, '["rock"]'::jsonb, NOW() - CAST(:age AS INTERVAL), 'musicbrainz')
+            """, Map.of("artistName", artistName, "age", age));
+    }
+}
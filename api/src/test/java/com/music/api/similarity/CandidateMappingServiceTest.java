@@ -0,0 +1,124 @@
+package com.music.api.similarity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.music.api.auth.SpotifyAuthService;
+import com.music.api.auth.UserAuth;
+import com.music.api.similarity.CandidateMappingService.MappedTrack;
+import com.music.api.similarity.LastFmClient.LastFmTrack;
+import com.music.api.spotify.SpotifyApiClient;
+import com.music.api.spotify.SpotifyApiClient.SeedTrack;
+
+import reactor.core.publisher.Mono;
+
+class CandidateMappingServiceTest {
+
+    private IdMapMissRepository idMapMissRepository;
+    private SpotifyApiClient spotifyApiClient;
+    private SpotifyAuthService spotifyAuthService;
+    private CandidateMappingService service;
+
+    @BeforeEach
+    void setUp() {
+        IdMapRepository idMapRepository = mock(IdMapRepository.class);
+        when(idMapRepository.findFresh(anyCollection())).thenReturn(Map.of());
+        idMapMissRepository = mock(IdMapMissRepository.class);
+        when(idMapMissRepository.findFresh(anyCollection())).thenReturn(Set.of());
+        TrackCacheService trackCacheService = mock(TrackCacheService.class);
+        when(trackCacheService.getTracks(any(), anyCollection())).thenReturn(Mono.just(Map.of()));
+        spotifyApiClient = mock(SpotifyApiClient.class);
+        spotifyAuthService = mock(SpotifyAuthService.class);
+        service = new CandidateMappingService(
+            idMapRepository,
+            idMapMissRepository,
+            spotifyApiClient,
+            spotifyAuthService,
+            trackCacheService,
+            mock(CacheRefresher.class),
+            new SimilarityProperties()
+        );
+    }
+
+    @Test
+    void concurrentSearchesKeepCandidateOrderAndDedupeByIsrc() {
+        when(spotifyApiClient.searchTrackReactive(anyString(), eq("Slow"), anyString()))
+            .thenReturn(Mono.delay(Duration.ofMillis(150)).thenReturn(seedTrack("1", "Slow", "ISRC1")));
+        when(spotifyApiClient.searchTrackReactive(anyString(), eq("Remaster"), anyString())).thenReturn(Mono.just(seedTrack("2", "Remaster", "isrc1")));
+        when(spotifyApiClient.searchTrackReactive(anyString(), eq("Fast"), anyString())).thenReturn(Mono.just(seedTrack("3", "Fast", "ISRC3")));
+
+        List<MappedTrack> mapped = service.mapCandidatesReactive(auth("token"), List.of(
+            candidate("Slow"),
+            candidate("Remaster"),
+            candidate("Fast")
+        ), 10).block();
+
+        assertThat(mapped).extracting(MappedTrack::spotifyId).containsExactly("1", "3");
+    }
+
+    @Test
+    void concurrentUnauthorizedSearchesShareOneTokenRefresh() {
+        when(spotifyAuthService.refreshAccessTokenReactive(any())).thenReturn(Mono.just(auth("fresh")));
+        when(spotifyApiClient.searchTrackReactive(eq("expired"), anyString(), anyString())).thenReturn(Mono.delay(Duration.ofMillis(50))
+            .then(Mono.error(WebClientResponseException.create(401, "Unauthorized", null, null, null))));
+        when(spotifyApiClient.searchTrackReactive(eq("fresh"), anyString(), anyString()))
+            .thenAnswer(invocation -> Mono.just(seedTrack(invocation.getArgument(1), invocation.getArgument(1), null)));
+
+        List<MappedTrack> mapped = service.mapCandidatesReactive(auth("expired"), List.of(
+            candidate("A"),
+            candidate("B"),
+            candidate("C"),
+            candidate("D")
+        ), 10).block();
+
+        assertThat(mapped).extracting(MappedTrack::spotifyId).containsExactly("A", "B", "C", "D");
+        verify(spotifyAuthService, times(1)).refreshAccessTokenReactive(any());
+    }
+
+    @Test
+    void knownMissesAreSkippedAndNewMissesRecorded() {
+        String knownKey = SimilarityKeys.normalize("Artist", "Known");
+        when(idMapMissRepository.findFresh(anyCollection())).thenReturn(Set.of(knownKey));
+        when(spotifyApiClient.searchTrackReactive(anyString(), anyString(), anyString())).thenReturn(Mono.empty());
+
+        List<MappedTrack> mapped = service.mapCandidatesReactive(auth("token"), List.of(
+            candidate("Known"),
+            candidate("Unknown")
+        ), 10).block();
+
+        assertThat(mapped).extracting(MappedTrack::spotifyId).containsExactly(null, null);
+        verify(spotifyApiClient, never()).searchTrackReactive(anyString(), eq("Known"), anyString());
+        verify(idMapMissRepository).upsert(SimilarityKeys.normalize("Artist", "Unknown"));
+    }
+
+    private static LastFmTrack candidate(String name) {
+        return new LastFmTrack(name, "Artist", 0.5, null, null);
+    }
+
+    private static SeedTrack seedTrack(String id, String name, String isrc) {
+        return new SeedTrack(id, name, "Artist", "Album", null, null, 50, isrc);
+    }
+
+    private static UserAuth auth(String accessToken) {
+        return new UserAuth(UUID.randomUUID(), "user", accessToken, "refresh", "", Instant.now(), Instant.now());
+    }
+}
@@ -0,0 +1,132 @@
+package com.music.api.similarity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.music.api.feedback.FeedbackIndex;
+import com.music.api.feedback.FeedbackRecord;
+import com.music.api.feedback.FeedbackRepository;
+import com.music.api.feedback.UserFeedback;
+import com.music.api.similarity.ArtistTagService.TagLookup;
+import com.music.api.similarity.CandidateMappingService.MappedTrack;
+import com.music.api.similarity.LastFmClient.LastFmTrack;
+import com.music.api.similarity.RankingService.RankedTrack;
+import com.music.api.similarity.TrackCacheRepository.TrackCacheEntry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class RankingServiceTest {
+
+    private RankingService rankingService;
+    private RankingStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        TagVocabulary vocabulary = new TagVocabulary();
+        ArtistTagService artistTagService = mock(ArtistTagService.class);
+        when(artistTagService.getTagsReactive(anyCollection(), any())).thenReturn(Mono.just(new TagLookup(Map.of(
+            "Seed", vocabulary.encode(List.of("rock", "indie")),
+            "A", vocabulary.encode(List.of("rock")),
+            "B", vocabulary.encode(List.of("indie", "pop"))
+        ), Set.of())));
+        rankingService = new RankingService(artistTagService, new SimilarityProperties());
+        strategy = new RankingStrategies(new RankingProperties(), new SimpleMeterRegistry()).defaultStrategy();
+    }
+
+    @Test
+    void topKMatchesFullRankingTruncated() {
+        Random random = new Random(7);
+        List<MappedTrack> candidates = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            // Coarse values force plenty of exact ties on score, popularity and name
+            String artist = List.of("A", "B", "C").get(random.nextInt(3));
+            LastFmTrack source = new LastFmTrack("Track " + random.nextInt(20), artist, random.nextInt(4) / 4.0, null, null);
+            boolean mapped = random.nextInt(5) != 0;
+            Integer popularity = random.nextInt(4) == 0 ? null : random.nextInt(5) * 10;
+            TrackCacheEntry track = mapped
+                ? new TrackCacheEntry("id-" + i, source.name(), artist, "Album", popularity, null, null, Instant.now())
+                : null;
+            candidates.add(new MappedTrack(source, mapped ? "id-" + i : null, 1.0, false, track));
+        }
+
+        List<RankedTrack> all = rankTop(candidates, candidates.size(), strategy, UserFeedback.EMPTY);
+        assertThat(all).hasSize((int) candidates.stream().filter(candidate -> candidate.spotifyId() != null).count());
+        assertThat(all).isSortedAccordingTo(Comparator.comparing(RankedTrack::score).reversed()
+            .thenComparing(RankedTrack::popularity, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(RankedTrack::name));
+
+        for (int limit : new int[] {1, 5, 20, 50, 500}) {
+            List<RankedTrack> expected = all.stream().limit(limit).toList();
+
+            assertThat(rankTop(candidates, limit, strategy, UserFeedback.EMPTY)).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void dropsDownVotedTracksAndBoostsUpVotedOnes() {
+        UUID userId = UUID.randomUUID();
+        FeedbackRepository feedbackRepository = mock(FeedbackRepository.class);
+        when(feedbackRepository.findByUser(userId)).thenReturn(List.of(
+            new FeedbackRecord(userId, "liked", (short) 1, Instant.now()),
+            new FeedbackRecord(userId, "disliked", (short) -1, Instant.now())
+        ));
+        UserFeedback feedback = new FeedbackIndex(feedbackRepository, new SimpleMeterRegistry()).forUser(userId);
+        List<MappedTrack> candidates = List.of(
+            mapped("disliked", 0.9),
+            mapped("neutral", 0.5),
+            mapped("liked", 0.45)
+        );
+
+        List<RankedTrack> ranked = rankTop(candidates, 10, strategy, feedback);
+
+        assertThat(ranked).extracting(RankedTrack::spotifyId).containsExactly("liked", "neutral");
+    }
+
+    @Test
+    void diversityWeightSpreadsRepeatedArtists() {
+        List<MappedTrack> candidates = List.of(
+            mapped("c1", "C", 0.9),
+            mapped("c2", "C", 0.85),
+            mapped("c3", "C", 0.8),
+            mapped("a1", "A", 0.6),
+            mapped("b1", "B", 0.5)
+        );
+        RankingProperties properties = new RankingProperties();
+        properties.getProfiles().get("default").setDiversityWeight(0.5);
+        RankingStrategy diverse = new RankingStrategies(properties, new SimpleMeterRegistry()).defaultStrategy();
+
+        assertThat(rankTop(candidates, 3, strategy, UserFeedback.EMPTY))
+            .extracting(RankedTrack::spotifyId).containsExactly("c1", "c2", "c3");
+        assertThat(rankTop(candidates, 3, diverse, UserFeedback.EMPTY))
+            .extracting(RankedTrack::spotifyId).containsExactly("c1", "a1", "b1");
+    }
+
+    private List<RankedTrack> rankTop(List<MappedTrack> candidates, int limit, RankingStrategy rankingStrategy, UserFeedback feedback) {
+        return rankingService.rankTopReactive("Seed", candidates, limit, rankingStrategy, feedback).block();
+    }
+
+    private static MappedTrack mapped(String spotifyId, double match) {
+        return mapped(spotifyId, "C", match);
+    }
+
+    private static MappedTrack mapped(String spotifyId, String artist, double match) {
+        LastFmTrack source = new LastFmTrack(spotifyId, artist, match, null, null);
+        return new MappedTrack(source, spotifyId, 1.0, false, null);
+    }
+}
@@ -0,0 +1,36 @@
+package com.music.api.similarity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.music.api.similarity.RankingProperties.WeightProfile;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RankingStrategiesTest {
+
+    @Test
+    void resolvesConfiguredProfilesAndTimesEachSeparately() {
+        RankingProperties properties = new RankingProperties();
+        WeightProfile tagHeavy = new WeightProfile();
+        tagHeavy.setBaseWeight(0.5);
+        tagHeavy.setTagWeight(0.5);
+        tagHeavy.setPopularityWeight(0.0);
+        properties.getProfiles().put("tag-heavy", tagHeavy);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RankingStrategies strategies = new RankingStrategies(properties, meterRegistry);
+
+        ScoringBatch batch = new ScoringBatch(1);
+        batch.set(0, 0.4, 1.0, null, false);
+        double[] scores = new double[1];
+        strategies.resolve("tag-heavy").score(batch, scores);
+
+        assertThat(scores[0]).isEqualTo(0.7);
+        assertThat(strategies.resolve(null).name()).isEqualTo("default");
+        assertThat(meterRegistry.get("ranking.scoring").tag("strategy", "tag-heavy").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ranking.scoring").tag("strategy", "default").timer().count()).isZero();
+        assertThatThrownBy(() -> strategies.resolve("missing")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,116 @@
+package com.music.api.similarity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.music.api.similarity.LastFmCacheRepository.CachedResponse;
+import com.music.api.similarity.LastFmClient.LastFmTrack;
+import com.music.api.similarity.SimilarityService.SimilarityResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SimilarityResultCacheTest {
+
+    private SimilarityProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SimilarityProperties();
+    }
+
+    @Test
+    void entryCountIsBoundedEvenForSmallResults() {
+        properties.setL1CacheMaxEntries(2);
+        properties.setL1CacheMaxWeight(1_000);
+        SimilarityResultCache cache = new SimilarityResultCache(properties, new SimpleMeterRegistry());
+
+        IntStream.range(0, 3).forEach(i -> cache.put("track", "seed-" + i, result(1), Instant.now()));
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(cached(cache, 3)).isEqualTo(2));
+    }
+
+    @Test
+    void totalTrackWeightIsBounded() {
+        properties.setL1CacheMaxEntries(100);
+        properties.setL1CacheMaxWeight(10);
+        SimilarityResultCache cache = new SimilarityResultCache(properties, new SimpleMeterRegistry());
+
+        // Each entry weighs its tracks plus one, so two of them exceed the bound
+        cache.put("track", "seed-0", result(8), Instant.now());
+        cache.put("track", "seed-1", result(8), Instant.now());
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> assertThat(cached(cache, 2)).isEqualTo(1));
+    }
+
+    @Test
+    void entriesExpireWithTheBackingRow() {
+        SimilarityResultCache cache = new SimilarityResultCache(properties, new SimpleMeterRegistry());
+        Instant rowExpiresSoon = Instant.now().minus(LastFmCacheRepository.TTL).plusMillis(300);
+
+        cache.put("track", "fresh", result(1), Instant.now());
+        cache.put("track", "expiring", result(1), rowExpiresSoon);
+        cache.put("track", "expired", result(1), Instant.now().minus(LastFmCacheRepository.TTL).minusSeconds(1));
+
+        assertThat(cache.get("track", "expiring")).isPresent();
+        assertThat(cache.get("track", "expired")).isEmpty();
+        await().atMost(Duration.ofSeconds(2)).until(() -> cache.get("track", "expiring").isEmpty());
+        assertThat(cache.get("track", "fresh")).isPresent();
+    }
+
+    @Test
+    void staleRowsAreServedFromTheDatabaseWithoutBeingPromoted() throws Exception {
+        SimilarityResultCache cache = new SimilarityResultCache(properties, new SimpleMeterRegistry());
+        LastFmCacheRepository cacheRepository = mock(LastFmCacheRepository.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        String key = SimilarityKeys.normalize("Seed", "Song");
+        when(cacheRepository.findFreshResponse("track", key)).thenReturn(Optional.of(new CachedResponse(
+            objectMapper.writeValueAsString(result(2)),
+            Instant.now().minus(LastFmCacheRepository.TTL).minusSeconds(60),
+            true
+        )));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SimilarityService service = new SimilarityService(
+            mock(LastFmClient.class),
+            cacheRepository,
+            cache,
+            mock(CacheRefresher.class),
+            objectMapper,
+            new LastFmProperties(),
+            properties,
+            meterRegistry
+        );
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(service.getSimilarTracksReactive("Seed", "Song").block().tracks()).hasSize(2);
+        }
+
+        assertThat(cache.get("track", key)).isEmpty();
+        verify(cacheRepository, times(2)).findFreshResponse("track", key);
+    }
+
+    private static long cached(SimilarityResultCache cache, int seeds) {
+        return IntStream.range(0, seeds)
+            .filter(i -> cache.get("track", "seed-" + i).isPresent())
+            .count();
+    }
+
+    private static SimilarityResult result(int trackCount) {
+        return new SimilarityResult("track.getSimilar", IntStream.range(0, trackCount)
+            .mapToObj(i -> new LastFmTrack("Track " + i, "Artist", 0.5, null, null))
+            .toList());
+    }
+}
@@ -0,0 +1,104 @@
+package com.music.api.similarity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.music.api.similarity.LastFmClient.LastFmArtist;
+import com.music.api.similarity.LastFmClient.LastFmTrack;
+import com.music.api.similarity.SimilarityService.SimilarityResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class SimilarityServiceTest {
+
+    private LastFmClient lastFmClient;
+    private LastFmCacheRepository cacheRepository;
+    private SimilarityProperties similarityProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private SimilarityService service;
+
+    @BeforeEach
+    void setUp() {
+        lastFmClient = mock(LastFmClient.class);
+        cacheRepository = mock(LastFmCacheRepository.class);
+        when(cacheRepository.findFreshResponse(anyString(), anyString())).thenReturn(Optional.empty());
+        similarityProperties = new SimilarityProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        service = new SimilarityService(
+            lastFmClient,
+            cacheRepository,
+            new SimilarityResultCache(similarityProperties, meterRegistry),
+            mock(CacheRefresher.class),
+            new ObjectMapper(),
+            new LastFmProperties(),
+            similarityProperties,
+            meterRegistry
+        );
+    }
+
+    @Test
+    void mergesSimilarArtistTopTracksInArtistOrderWithoutDuplicates() {
+        when(lastFmClient.getSimilarTracksReactive(anyString(), anyString(), anyInt())).thenReturn(Mono.just(List.of()));
+        when(lastFmClient.getSimilarArtistsReactive(eq("Seed"), anyInt())).thenReturn(Mono.just(List.of(
+            new LastFmArtist("Slow", 0.9, null),
+            new LastFmArtist("Fast", 0.8, null)
+        )));
+        when(lastFmClient.getArtistTopTracksReactive(eq("Slow"), anyInt()))
+            .thenReturn(Mono.delay(Duration.ofMillis(150)).thenReturn(List.of(track("Slow", "One"), track("Fast", "Shared"))));
+        when(lastFmClient.getArtistTopTracksReactive(eq("Fast"), anyInt()))
+            .thenReturn(Mono.just(List.of(track("fast ", "shared"), track("Fast", "Two"))));
+
+        SimilarityResult result = service.getSimilarTracksReactive("Seed", "Song").block();
+
+        assertThat(result.strategy()).isEqualTo("artist.getSimilar");
+        assertThat(result.tracks()).extracting(LastFmTrack::name).containsExactly("One", "Shared", "Two");
+    }
+
+    @Test
+    void speculativeModePrefersHigherPriorityStrategyEvenWhenSlower() {
+        similarityProperties.setSpeculative(true);
+        when(lastFmClient.getSimilarTracksReactive(anyString(), anyString(), anyInt()))
+            .thenReturn(Mono.delay(Duration.ofMillis(150)).thenReturn(List.of(track("Similar", "Track"))));
+        when(lastFmClient.getSimilarArtistsReactive(anyString(), anyInt())).thenReturn(Mono.just(List.of()));
+        when(lastFmClient.getArtistTopTracksReactive(anyString(), anyInt())).thenReturn(Mono.just(List.of(track("Seed", "Hit"))));
+        when(lastFmClient.getGeoTopTracksReactive(anyString(), anyInt())).thenReturn(Mono.just(List.of(track("Geo", "Hit"))));
+
+        SimilarityResult result = service.getSimilarTracksReactive("Seed", "Song").block();
+
+        assertThat(result.strategy()).isEqualTo("track.getSimilar");
+        assertThat(meterRegistry.counter("similarity.strategy.selected", "strategy", "track.getSimilar", "mode", "speculative").count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void speculativeModeFallsThroughToFirstNonEmptyStrategy() {
+        similarityProperties.setSpeculative(true);
+        similarityProperties.setHedgeDelay(Duration.ofSeconds(5));
+        when(lastFmClient.getSimilarTracksReactive(anyString(), anyString(), anyInt())).thenReturn(Mono.just(List.of()));
+        when(lastFmClient.getSimilarArtistsReactive(anyString(), anyInt())).thenReturn(Mono.just(List.of()));
+        when(lastFmClient.getArtistTopTracksReactive(anyString(), anyInt())).thenReturn(Mono.just(List.of(track("Seed", "Hit"))));
+
+        long started = System.nanoTime();
+        SimilarityResult result = service.getSimilarTracksReactive("Seed", "Song").block();
+
+        assertThat(result.strategy()).isEqualTo("artist.getTopTracks");
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    private static LastFmTrack track(String artist, String name) {
+        return new LastFmTrack(name, artist, 0.5, null, null);
+    }
+}
@@ -0,0 +1,101 @@
+package com.music.api.similarity;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares scoring one seed against a page of candidates with the previous HashSet-based
+ * Jaccard and with interned {@link TagSet}s. Run with {@code mvn -Pbenchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagJaccardBenchmark {
+
+    private static final int CANDIDATES = 60;
+    private static final int TAGS_PER_ARTIST = 20;
+
+    @Param({"200", "2000"})
+    public int vocabularySize;
+
+    private Set<String> seedStrings;
+    private List<Set<String>> candidateStrings;
+    private TagSet seedTags;
+    private List<TagSet> candidateTags;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        TagVocabulary vocabulary = new TagVocabulary();
+        List<String> seed = randomTags(random);
+        seedStrings = new HashSet<>(seed);
+        seedTags = vocabulary.encode(seed);
+        candidateStrings = new ArrayList<>(CANDIDATES);
+        candidateTags = new ArrayList<>(CANDIDATES);
+        for (int i = 0; i < CANDIDATES; i++) {
+            List<String> tags = randomTags(random);
+            candidateStrings.add(new HashSet<>(tags));
+            candidateTags.add(vocabulary.encode(tags));
+        }
+    }
+
+    @Benchmark
+    public double hashSetJaccard() {
+        double total = 0.0;
+        for (Set<String> candidate : candidateStrings) {
+            total += hashSetJaccard(seedStrings, candidate);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double tagSetJaccard() {
+        double total = 0.0;
+        for (TagSet candidate : candidateTags) {
+            total += seedTags.jaccard(candidate);
+        }
+        return total;
+    }
+
+    private List<String> randomTags(Random random) {
+        List<String> tags = new ArrayList<>(TAGS_PER_ARTIST);
+        for (int i = 0; i < TAGS_PER_ARTIST; i++) {
+            tags.add("tag-" + random.nextInt(vocabularySize));
+        }
+        return tags;
+    }
+
+    // The implementation ArtistTagService used before tags were interned
+    private static double hashSetJaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        Set<String> intersection = new HashSet<>(a);
+        intersection.retainAll(b);
+        if (intersection.isEmpty()) {
+            return 0.0;
+        }
+        Set<String> union = new HashSet<>(a);
+        union.addAll(b);
+        return union.isEmpty() ? 0.0 : (double) intersection.size() / union.size();
+    }
+}
@@ -0,0 +1,35 @@
+package com.music.api.similarity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TagSetTest {
+
+    private final TagVocabulary vocabulary = new TagVocabulary();
+
+    @Test
+    void encodingNormalizesAndDropsBlankAndDuplicateTags() {
+        TagSet tags = vocabulary.encode(Arrays.asList(" Rock", "rock ", "ROCK", "", "  ", null, "Indie"));
+
+        assertThat(tags.size()).isEqualTo(2);
+        assertThat(tags).isEqualTo(vocabulary.encode(List.of("indie", "rock")));
+        assertThat(vocabulary.size()).isEqualTo(2);
+    }
+
+    @Test
+    void jaccardMatchesSetDefinition() {
+        TagSet a = vocabulary.encode(List.of("rock", "indie", "britpop"));
+        TagSet b = vocabulary.encode(List.of("indie", "britpop", "shoegaze", "dream pop"));
+
+        assertThat(a.jaccard(b)).isCloseTo(2.0 / 5.0, within(1e-9));
+        assertThat(b.jaccard(a)).isCloseTo(2.0 / 5.0, within(1e-9));
+        assertThat(a.jaccard(a)).isEqualTo(1.0);
+        assertThat(a.jaccard(vocabulary.encode(List.of("jazz")))).isZero();
+        assertThat(a.jaccard(TagSet.EMPTY)).isZero();
+    }
+}
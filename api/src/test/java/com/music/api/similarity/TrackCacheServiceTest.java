@@ -0,0 +1,91 @@
+package com.music.api.similarity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.music.api.auth.SpotifyAuthService;
+import com.music.api.auth.UserAuth;
+import com.music.api.similarity.TrackCacheRepository.TrackCacheEntry;
+import com.music.api.spotify.SpotifyApiClient;
+import com.music.api.spotify.SpotifyApiClient.SeedTrack;
+
+import reactor.core.publisher.Mono;
+
+class TrackCacheServiceTest {
+
+    private TrackCacheRepository repository;
+    private SpotifyApiClient spotifyApiClient;
+    private SpotifyAuthService spotifyAuthService;
+    private TrackCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TrackCacheRepository.class);
+        when(repository.findFresh(anyCollection())).thenReturn(Map.of());
+        spotifyApiClient = mock(SpotifyApiClient.class);
+        spotifyAuthService = mock(SpotifyAuthService.class);
+        service = new TrackCacheService(repository, spotifyApiClient, spotifyAuthService, mock(CacheRefresher.class));
+    }
+
+    @Test
+    void unauthorizedBatchRefreshesTheTokenOnlyOnce() {
+        when(spotifyAuthService.refreshAccessTokenReactive(any())).thenReturn(Mono.just(auth("still-expired")));
+        when(spotifyApiClient.getTracksReactive(anyString(), anyCollection())).thenReturn(Mono.error(unauthorized()));
+
+        Map<String, TrackCacheEntry> tracks = service.getTracks(auth("expired"), ids(0, 120)).block();
+
+        assertThat(tracks).isEmpty();
+        verify(spotifyAuthService, times(1)).refreshAccessTokenReactive(any());
+        verify(spotifyApiClient, times(4)).getTracksReactive(anyString(), anyCollection());
+    }
+
+    @Test
+    void failedChunkDoesNotLoseTheOthers() {
+        when(spotifyApiClient.getTracksReactive(anyString(), anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(1);
+            if (ids.contains("id-50")) {
+                return Mono.error(WebClientResponseException.create(500, "Server Error", null, null, null));
+            }
+            return Mono.just(ids.stream().map(TrackCacheServiceTest::track).toList());
+        });
+
+        Map<String, TrackCacheEntry> tracks = service.getTracks(auth("token"), ids(0, 120)).block();
+
+        assertThat(tracks).hasSize(70).containsKeys("id-0", "id-49", "id-100", "id-119").doesNotContainKey("id-50");
+        verify(repository, times(2)).upsertAll(argThat(entries -> !entries.isEmpty()));
+    }
+
+    private static List<String> ids(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> "id-" + i).toList();
+    }
+
+    private static SeedTrack track(String id) {
+        return new SeedTrack(id, "Name " + id, "Artist", "Album", "https://img/" + id, null, 50, null);
+    }
+
+    private static WebClientResponseException unauthorized() {
+        return WebClientResponseException.create(401, "Unauthorized", null, null, null);
+    }
+
+    private static UserAuth auth(String accessToken) {
+        return new UserAuth(UUID.randomUUID(), "user", accessToken, "refresh", "", Instant.now(), Instant.now());
+    }
+}
@@ -0,0 +1,136 @@
+package com.music.api.similarity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.music.api.similarity.LastFmClient.LastFmTrack;
+import com.music.api.support.AdaptiveRateLimiter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Serves a burst of concurrent {@link LastFmClient} calls, each blocking its thread until the
+ * response arrives, against a stubbed Last.fm that answers after a fixed latency, once from a pool sized like Tomcat's default 200 request threads
+ * and once from a virtual thread per request. Pinned virtual threads are reported on stdout. Run
+ * with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=VirtualThreadBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class VirtualThreadBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+    private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(20);
+    private static final byte[] SIMILAR_TRACKS = """
+        {"similartracks":{"track":[
+          {"name":"Track A","match":"0.9","url":"https://last.fm/a","artist":{"name":"Artist A"}},
+          {"name":"Track B","match":"0.8","url":"https://last.fm/b","artist":{"name":"Artist B"}}
+        ]}}
+        """.getBytes(StandardCharsets.UTF_8);
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"200", "1000"})
+    public int concurrency;
+
+    private HttpServer upstream;
+    private ConnectionProvider connections;
+    private ExecutorService requestThreads;
+    private LastFmClient client;
+
+    @Setup
+    public void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), concurrency);
+        upstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        upstream.createContext("/", VirtualThreadBenchmark::respondAfterLatency);
+        upstream.start();
+
+        // Enough connections for the whole burst, so the comparison measures threads rather than pool waits
+        connections = ConnectionProvider.builder("benchmark")
+            .maxConnections(concurrency)
+            .pendingAcquireMaxCount(-1)
+            .build();
+        WebClient webClient = WebClient.builder()
+            .baseUrl("http://127.0.0.1:" + upstream.getAddress().getPort())
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+            .build();
+        LastFmProperties properties = new LastFmProperties();
+        properties.setApiKey("benchmark");
+        AdaptiveRateLimiter unlimited = new AdaptiveRateLimiter("benchmark", Integer.MAX_VALUE, 1, Integer.MAX_VALUE,
+            Duration.ZERO, new SimpleMeterRegistry());
+        client = new LastFmClient(webClient, properties, unlimited, Retry.ofDefaults("benchmark"),
+            CircuitBreaker.ofDefaults("benchmark"));
+
+        requestThreads = "virtual".equals(threads)
+            ? Executors.newVirtualThreadPerTaskExecutor()
+            : Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        requestThreads.shutdownNow();
+        connections.dispose();
+        upstream.stop(0);
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<List<LastFmTrack>>> calls = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            String track = "Track " + i;
+            calls.add(requestThreads.submit(() -> client.getSimilarTracksReactive("Artist", track, 50).block()));
+        }
+        int total = 0;
+        for (Future<List<LastFmTrack>> call : calls) {
+            total += call.get().size();
+        }
+        return total;
+    }
+
+    private static void respondAfterLatency(HttpExchange exchange) throws IOException {
+        try {
+            Thread.sleep(UPSTREAM_LATENCY);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, SIMILAR_TRACKS.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(SIMILAR_TRACKS);
+        }
+    }
+}
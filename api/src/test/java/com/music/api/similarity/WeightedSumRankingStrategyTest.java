@@ -0,0 +1,29 @@
+package com.music.api.similarity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class WeightedSumRankingStrategyTest {
+
+    @Test
+    void blendsSimilarityTagsPopularityZScoreAndUpVoteBonus() {
+        ScoringBatch batch = new ScoringBatch(4);
+        batch.set(0, 0.9, 0.5, 80, false);
+        batch.set(1, 0.4, 0.0, 40, false);
+        batch.set(2, 0.6, 0.25, null, false);
+        batch.set(3, 0.5, 0.0, null, true);
+        double[] scores = new double[4];
+
+        new WeightedSumRankingStrategy("default", 0.7, 0.2, 0.1, 0.1, 0.0).score(batch, scores);
+
+        // Known popularities 80 and 40: mean 60, population std 20
+        assertThat(batch.popularityMean()).isEqualTo(60.0);
+        assertThat(batch.popularityStd()).isEqualTo(20.0);
+        assertThat(scores[0]).isCloseTo(0.7 * 0.9 + 0.2 * 0.5 + 0.1 * 1.0, within(1e-12));
+        assertThat(scores[1]).isCloseTo(0.7 * 0.4 + 0.1 * -1.0, within(1e-12));
+        assertThat(scores[2]).isCloseTo(0.7 * 0.6 + 0.2 * 0.25, within(1e-12));
+        assertThat(scores[3]).isCloseTo(0.7 * 0.5 + 0.1, within(1e-12));
+    }
+}
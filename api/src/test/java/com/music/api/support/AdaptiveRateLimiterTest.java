@@ -0,0 +1,88 @@
+package com.music.api.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class AdaptiveRateLimiterTest {
+
+    @Test
+    void throttlingHalvesTheRateOncePerPeriodAndSuccessesRampItBack() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter("test", 8, 1, 8, Duration.ofSeconds(1), registry);
+        Function<Mono<String>, Mono<String>> operator = limiter.operator();
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> Mono.<String>error(tooManyRequests(null)).transformDeferred(operator).block())
+                .isInstanceOf(WebClientResponseException.class);
+        }
+
+        assertThat(limiter.currentLimit()).isEqualTo(4);
+        assertThat(registry.get("ratelimiter.rate").tag("name", "test").gauge().value()).isEqualTo(4.0);
+        assertThat(registry.get("ratelimiter.throttled").tag("name", "test").counter().count()).isEqualTo(3.0);
+
+        // Each success adds 1/rate, so roughly one rate's worth of successes gains a permit
+        for (int i = 0; i < 5; i++) {
+            limiter.onSuccess();
+        }
+        assertThat(limiter.currentLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void retryAfterHoldsBackNewCalls() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter("test", 5, 1, 5, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        Function<Mono<String>, Mono<String>> operator = limiter.operator();
+
+        assertThatThrownBy(() -> Mono.<String>error(tooManyRequests("1")).transformDeferred(operator).block())
+            .isInstanceOf(WebClientResponseException.class);
+
+        long started = System.nanoTime();
+        assertThat(Mono.just("ok").transformDeferred(operator).block()).isEqualTo("ok");
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThan(Duration.ofMillis(800));
+    }
+
+    @Test
+    void serviceUnavailableThrottlesOnlyWhereTheUpstreamUsesItAndRatesGoBelowOnePerSecond() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdaptiveRateLimiter musicBrainz = new AdaptiveRateLimiter("musicbrainz", 1, 0.25, 1, Duration.ofSeconds(1),
+            ex -> Set.of(429, 503).contains(ex.getStatusCode().value()), ClusterPermits.UNLIMITED, registry);
+        AdaptiveRateLimiter spotify = new AdaptiveRateLimiter("spotify", 10, 1, 50, Duration.ofSeconds(1), registry);
+
+        assertThatThrownBy(() -> Mono.<String>error(serviceUnavailable()).transformDeferred(musicBrainz.operator()).block())
+            .isInstanceOf(WebClientResponseException.class);
+        assertThatThrownBy(() -> Mono.<String>error(serviceUnavailable()).transformDeferred(spotify.operator()).block())
+            .isInstanceOf(WebClientResponseException.class);
+
+        assertThat(musicBrainz.currentRate()).isEqualTo(0.5);
+        assertThat(registry.get("ratelimiter.rate").tag("name", "musicbrainz").gauge().value()).isEqualTo(0.5);
+        assertThat(spotify.currentRate()).isEqualTo(10.0);
+
+        // At half a call per second the next slot after this call is two seconds out
+        assertThat(Mono.just("ok").transformDeferred(musicBrainz.operator()).block()).isEqualTo("ok");
+        assertThatThrownBy(() -> Mono.just("ok").transformDeferred(musicBrainz.operator()).block())
+            .isInstanceOf(RequestNotPermitted.class);
+    }
+
+    private static WebClientResponseException serviceUnavailable() {
+        return WebClientResponseException.create(503, "Service Unavailable", new HttpHeaders(), new byte[0], null);
+    }
+
+    private static WebClientResponseException tooManyRequests(String retryAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        if (retryAfter != null) {
+            headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        return WebClientResponseException.create(429, "Too Many Requests", headers, new byte[0], null);
+    }
+}
@@ -0,0 +1,74 @@
+package com.music.api.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallersForSameKeyShareOneExecution() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", registry);
+        AtomicInteger executions = new AtomicInteger();
+
+        List<String> results = Flux.range(0, 8)
+            .flatMap(i -> singleFlight.executeReactive("seed", () -> Mono.delay(Duration.ofMillis(200))
+                .doOnSubscribe(subscription -> executions.incrementAndGet())
+                .thenReturn("result")))
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(results).hasSize(8).containsOnly("result");
+        assertThat(executions).hasValue(1);
+        assertThat(registry.counter("singleflight.calls", "name", "test", "result", "coalesced").count()).isEqualTo(7.0);
+    }
+
+    @Test
+    void failureIsPropagatedAndKeyIsReleased() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", new SimpleMeterRegistry());
+
+        assertThatThrownBy(() -> singleFlight.executeReactive("seed", () -> Mono.error(new IllegalStateException("boom"))).block())
+            .isInstanceOf(IllegalStateException.class).hasMessage("boom");
+
+        assertThat(singleFlight.executeReactive("seed", () -> Mono.just("recovered")).block()).isEqualTo("recovered");
+    }
+
+    @Test
+    void reactiveCallersShareTheCallAndSurviveCancellation() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", new SimpleMeterRegistry());
+        AtomicInteger executions = new AtomicInteger();
+        Mono<String> shared = singleFlight.executeReactive("seed", () -> Mono.delay(Duration.ofMillis(200))
+            .doOnSubscribe(subscription -> executions.incrementAndGet())
+            .thenReturn("result"));
+
+        shared.subscribe().dispose();
+        Mono<String> second = singleFlight.executeReactive("seed", () -> Mono.just("unused"));
+
+        assertThat(second.block(Duration.ofSeconds(5))).isEqualTo("result");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void reactiveCallerResumingOnCompletionStartsAFreshCall() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", new SimpleMeterRegistry());
+        AtomicInteger executions = new AtomicInteger();
+        Mono<Integer> next = singleFlight.executeReactive("lease", () -> Mono.delay(Duration.ofMillis(50))
+            .map(tick -> executions.incrementAndGet()));
+
+        Integer second = next.flatMap(first -> singleFlight.executeReactive("lease", () -> Mono.delay(Duration.ofMillis(50))
+                .map(tick -> executions.incrementAndGet())))
+            .block(Duration.ofSeconds(5));
+
+        assertThat(second).isEqualTo(2);
+    }
+}
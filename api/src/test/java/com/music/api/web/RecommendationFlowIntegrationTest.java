@@ -95,7 +95,7 @@ class RecommendationFlowIntegrationTest {
 
     @BeforeEach
     void resetState() {
-        jdbcTemplate.execute("TRUNCATE feedback, id_map, track_cache, artist_tags, user_auth RESTART IDENTITY CASCADE");
+        jdbcTemplate.execute("TRUNCATE feedback, id_map, id_map_miss, track_cache, artist_tags, user_auth RESTART IDENTITY CASCADE");
         insertUserAuth();
         insertArtistTags("Seed Artist");
         insertArtistTags("Rec Artist");